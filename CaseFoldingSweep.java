@@ -0,0 +1,186 @@
+public class CaseFoldingSweep {
+    /*
+     * Checks equalsIgnoreCase and compareToIgnoreCase on every pair of
+     * single-char strings, all 2^32 of them. Both methods compare chars after
+     * Character.toUpperCase and then Character.toLowerCase, so the expected
+     * results come from one precomputed fold table: two chars are equal
+     * ignoring case iff their folds are equal, and otherwise compare as the
+     * difference of their folds. The strings themselves are pre-built, so the
+     * sweep allocates nothing per pair.
+     *
+     * The space is cut into blocks of rows (first chars) handed out to the
+     * workers. Every finished block, with the violations it found, is appended
+     * to a checkpoint log; a later run with the same log skips those blocks and
+     * reports their violations again, so an interrupted sweep resumes where it
+     * stopped.
+     */
+    static final int CHARS = 1 << 16;
+    static final int ROWS_PER_BLOCK = 256;
+    static final int BLOCKS = CHARS / ROWS_PER_BLOCK;
+    static final int MAX_VIOLATIONS_PER_BLOCK = 16;
+
+    static final char[] FOLD = new char[CHARS];
+    static final String[] SINGLE = new String[CHARS];
+    static {
+        for (int c = 0; c < CHARS; c++) {
+            FOLD[c] = Character.toLowerCase(Character.toUpperCase((char) c));
+            SINGLE[c] = String.valueOf((char) c);
+        }
+    }
+
+    final Path checkpoint;
+    final int workers;
+    final BitSet done = new BitSet(BLOCKS);
+    final List<String> violations = new ArrayList<>();
+
+    /**
+     * @param checkpoint the checkpoint log, created if missing
+     * @param workers    the number of parallel workers
+     */
+    CaseFoldingSweep(Path checkpoint, int workers) throws IOException {
+        this.checkpoint = checkpoint;
+        this.workers = workers;
+        if (Files.exists(checkpoint)) {
+            String log = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8);
+            String[] lines = log.split("\n", -1); // The last one is empty, or was cut short by an interruption
+            List<String> pending = new ArrayList<>();
+            for (int i = 0; i < lines.length - 1; i++) {
+                String line = lines[i];
+                if (line.startsWith("violation ")) {
+                    pending.add(line.substring(10));
+                } else if (line.startsWith("block ")) {
+                    // A block's violations only count along with its block line,
+                    // so a block cut short is swept again rather than reported twice
+                    int block = parseBlock(line.substring(6));
+                    if (block >= 0) {
+                        done.set(block);
+                        violations.addAll(pending);
+                    }
+                    pending.clear();
+                }
+            }
+        }
+    }
+
+    // The block number, or -1 unless it is a block of this sweep
+    static int parseBlock(String number) {
+        try {
+            int block = Integer.parseInt(number);
+            return block >= 0 && block < BLOCKS ? block : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Checks every pair whose first char lies in {@code [fromRow, toRow)}.
+     *
+     * @return the number of violating pairs; the first few are described in
+     *         {@code found}
+     */
+    long sweepRows(int fromRow, int toRow, List<String> found) {
+        long count = 0;
+        for (int a = fromRow; a < toRow; a++) {
+            String s1 = SINGLE[a];
+            char fa = FOLD[a];
+            for (int b = 0; b < CHARS; b++) {
+                String s2 = SINGLE[b];
+                boolean expectedEqual = fa == FOLD[b];
+                int expectedSign = Integer.signum(fa - FOLD[b]);
+                boolean equal = s1.equalsIgnoreCase(s2);
+                int sign = Integer.signum(s1.compareToIgnoreCase(s2));
+                if (equal != expectedEqual || sign != expectedSign) {
+                    if (count++ < MAX_VIOLATIONS_PER_BLOCK) {
+                        found.add(String.format("U+%04X U+%04X equalsIgnoreCase=%b (expected %b) "
+                                + "compareToIgnoreCase=%d (expected %d)", a, b, equal, expectedEqual, sign,
+                                expectedSign));
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // Cuts the log back to its last block line, so the next entry is neither
+    // glued to a line an interruption left unfinished nor credited with the
+    // violations of a block that never completed; that block is swept again
+    static void truncateToLastBlock(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return;
+        }
+        String log = new String(Files.readAllBytes(checkpoint), StandardCharsets.ISO_8859_1); // One char per byte
+        int end = log.length();
+        while (end > 0) {
+            int start = log.lastIndexOf('\n', end - 2) + 1;
+            if (log.charAt(end - 1) == '\n' && log.startsWith("block ", start)) {
+                break;
+            }
+            end = start;
+        }
+        try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.WRITE)) {
+            channel.truncate(end);
+        }
+    }
+
+    synchronized void complete(int block, List<String> found, Writer log) throws IOException {
+        StringBuilder entry = new StringBuilder();
+        for (String violation : found) {
+            entry.append("violation ").append(violation).append('\n');
+        }
+        entry.append("block ").append(block).append('\n');
+        log.write(entry.toString()); // One write, so the block line never lands without its violations
+        log.flush();
+        done.set(block);
+        violations.addAll(found);
+    }
+
+    /**
+     * Test oracle for checking equalsIgnoreCase and compareToIgnoreCase against
+     * the case-folding model on all char pairs, resuming from the checkpoint.
+     *
+     * @param report receives the violations, at most
+     *               {@link #MAX_VIOLATIONS_PER_BLOCK} per block, may be null
+     * @return true if no pair in any block, including those of earlier runs,
+     *         violated the model, false otherwise
+     */
+    boolean checkAllCharPairs(List<String> report) throws IOException, InterruptedException {
+        BitSet skip = (BitSet) done.clone(); // Read by the workers while complete() updates done
+        AtomicInteger nextBlock = new AtomicInteger();
+        AtomicLong total = new AtomicLong();
+        truncateToLastBlock(checkpoint);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try (Writer log = Files.newBufferedWriter(checkpoint, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                pending.add(pool.submit(() -> {
+                    for (int block; (block = nextBlock.getAndIncrement()) < BLOCKS;) {
+                        if (skip.get(block)) {
+                            continue;
+                        }
+                        List<String> found = new ArrayList<>();
+                        total.addAndGet(sweepRows(block * ROWS_PER_BLOCK, (block + 1) * ROWS_PER_BLOCK, found));
+                        complete(block, found, log);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : pending) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Sweep worker failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        synchronized (this) {
+            if (report != null) {
+                report.addAll(violations);
+            }
+            return violations.isEmpty() && total.get() == 0;
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+public class CleanupOracle {
+    // Reclamation oracles observed through the GC itself: populations of objects
+    // are registered with a Cleaner or with PhantomReferences, their strong
+    // references dropped, and GC cycles requested in batches until every cleanup
+    // ran or the round budget is spent. System.gc() is only a request, so
+    // objects still unreclaimed at the end are reported, not failed, except by
+    // the latency oracle, which counts them as cleaned no earlier than the end.
+    static final Cleaner CLEANER = Cleaner.create();
+    static final int MAX_GC_ROUNDS = 20;
+    static final long ROUND_MILLIS = 50;
+
+    // Per-object cleanup bookkeeping of one run, indexed by registration order
+    static class Tracking {
+        final AtomicIntegerArray runs; // Cleanup actions or enqueues seen per object
+        final AtomicLongArray cleanedAt; // nanoTime of the first cleanup per object
+        final WeakReference<?>[] weak; // Must be cleared before the object is cleaned
+        final AtomicInteger cleaned = new AtomicInteger();
+        final AtomicInteger orderViolations = new AtomicInteger();
+        long releasedAt;
+        long collectedAt; // When collect() gave up or saw every cleanup
+        int gcRounds;
+
+        Tracking(int count) {
+            runs = new AtomicIntegerArray(count);
+            cleanedAt = new AtomicLongArray(count);
+            weak = new WeakReference<?>[count];
+        }
+
+        void record(int i) {
+            if (weak[i].get() != null) {
+                orderViolations.incrementAndGet(); // Phantom reachable while still weakly reachable
+            }
+            if (runs.incrementAndGet(i) == 1) {
+                cleanedAt.set(i, System.nanoTime());
+                cleaned.incrementAndGet();
+            }
+        }
+
+        int count() {
+            return runs.length();
+        }
+
+        // Cleanup latencies in milliseconds from the release of the population,
+        // sorted, for the objects that were cleaned by the GC
+        double[] latencies() {
+            double[] millis = new double[count()];
+            int n = 0;
+            for (int i = 0; i < count(); i++) {
+                long at = cleanedAt.get(i);
+                if (at != 0 && at - releasedAt >= 0) { // Not cleaned by hand before the release
+                    millis[n++] = (at - releasedAt) / 1e6;
+                }
+            }
+            millis = Arrays.copyOf(millis, n);
+            Arrays.sort(millis);
+            return millis;
+        }
+
+        String summary() {
+            double[] l = latencies();
+            String latency = l.length == 0 ? "n/a"
+                    : "p50=" + percentile(l, 0.5) + "ms p90=" + percentile(l, 0.9) + "ms p99=" + percentile(l, 0.99)
+                            + "ms max=" + l[l.length - 1] + "ms";
+            return "objects=" + count() + " cleaned=" + cleaned.get() + " gcRounds=" + gcRounds + " orderViolations="
+                    + orderViolations.get() + " latency " + latency;
+        }
+    }
+
+    static double percentile(double[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+
+    // Cleanup action; a static class so it cannot capture the object it cleans
+    static class Action implements Runnable {
+        final Tracking tracking;
+        final int index;
+
+        Action(Tracking tracking, int index) {
+            this.tracking = tracking;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            tracking.record(index);
+        }
+    }
+
+    static class IndexedPhantom extends PhantomReference<Object> {
+        final int index;
+
+        IndexedPhantom(Object referent, ReferenceQueue<Object> queue, int index) {
+            super(referent, queue);
+            this.index = index;
+        }
+    }
+
+    // Requests GC cycles until every object is cleaned or the round budget is
+    // spent; drain is called after each cycle to collect enqueued references
+    void collect(Tracking tracking, Runnable drain) throws InterruptedException {
+        tracking.releasedAt = System.nanoTime();
+        while (tracking.cleaned.get() < tracking.count() && tracking.gcRounds < MAX_GC_ROUNDS) {
+            System.gc();
+            tracking.gcRounds++;
+            Thread.sleep(ROUND_MILLIS); // Give the cleaner thread time to catch up
+            drain.run();
+        }
+        tracking.collectedAt = System.nanoTime();
+    }
+
+    // Registers count objects with the Cleaner and releases them. The cleanables
+    // at the indexes in explicit are cleaned by hand, twice, before the release.
+    Tracking runCleaner(Supplier<?> factory, int count, BitSet explicit) throws InterruptedException {
+        Tracking tracking = new Tracking(count);
+        Cleaner.Cleanable[] cleanables = new Cleaner.Cleanable[count];
+        Object[] objects = new Object[count];
+        for (int i = 0; i < count; i++) {
+            objects[i] = factory.get();
+            tracking.weak[i] = new WeakReference<>(objects[i]);
+            cleanables[i] = CLEANER.register(objects[i], new Action(tracking, i));
+        }
+        for (int i = explicit.nextSetBit(0); i >= 0 && i < count; i = explicit.nextSetBit(i + 1)) {
+            objects[i] = null;
+            tracking.weak[i].clear(); // Cleaned by hand while reachable, so no ordering applies
+            cleanables[i].clean();
+            cleanables[i].clean();
+        }
+        Arrays.fill(objects, null);
+        collect(tracking, () -> {
+        });
+        Reference.reachabilityFence(cleanables);
+        return tracking;
+    }
+
+    // Registers count objects with PhantomReferences on a private queue and
+    // releases them, draining the queue after every GC cycle
+    Tracking runPhantom(Supplier<?> factory, int count, List<String> violations) throws InterruptedException {
+        Tracking tracking = new Tracking(count);
+        ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        IndexedPhantom[] phantoms = new IndexedPhantom[count];
+        Object[] objects = new Object[count];
+        for (int i = 0; i < count; i++) {
+            objects[i] = factory.get();
+            tracking.weak[i] = new WeakReference<>(objects[i]);
+            phantoms[i] = new IndexedPhantom(objects[i], queue, i);
+        }
+        Arrays.fill(objects, null);
+        collect(tracking, () -> {
+            for (Reference<?> r; (r = queue.poll()) != null;) {
+                if (r.get() != null) {
+                    violations.add("PhantomReference.get() returned the referent of #" + ((IndexedPhantom) r).index);
+                }
+                tracking.record(((IndexedPhantom) r).index);
+            }
+        });
+        Reference.reachabilityFence(phantoms);
+        return tracking;
+    }
+
+    // Oracle for checking that a Cleaner runs each cleanup action at most once,
+    // whether it is triggered by hand (twice here) or by the GC, and exactly once
+    // for the cleanables cleaned by hand
+    boolean checkCleanupAtMostOnce(Supplier<?> factory, int count, List<String> report) throws InterruptedException {
+        BitSet explicit = new BitSet(count);
+        for (int i = 0; i < count; i += 2) {
+            explicit.set(i);
+        }
+        Tracking tracking = runCleaner(factory, count, explicit);
+        boolean ok = true;
+        for (int i = 0; i < count; i++) {
+            int runs = tracking.runs.get(i);
+            if (runs > 1 || explicit.get(i) && runs != 1) {
+                ok = false;
+                if (report != null) {
+                    report.add("cleanup of #" + i + " ran " + runs + " times");
+                }
+            }
+        }
+        if (report != null) {
+            report.add(tracking.summary());
+        }
+        return ok;
+    }
+
+    // Oracle for checking reference ordering: by the time an object's cleanup runs
+    // or its PhantomReference is enqueued, every WeakReference to it must already
+    // have been cleared, and a PhantomReference never hands out its referent
+    boolean checkWeakClearedBeforeCleanup(Supplier<?> factory, int count, List<String> report)
+            throws InterruptedException {
+        List<String> violations = new ArrayList<>();
+        Tracking cleaner = runCleaner(factory, count, new BitSet());
+        Tracking phantom = runPhantom(factory, count, violations);
+        for (int i = 0; i < count; i++) {
+            if (phantom.runs.get(i) > 1) {
+                violations.add("PhantomReference of #" + i + " enqueued " + phantom.runs.get(i) + " times");
+            }
+        }
+        if (report != null) {
+            report.add("cleaner " + cleaner.summary());
+            report.add("phantom " + phantom.summary());
+            report.addAll(violations);
+        }
+        return cleaner.orderViolations.get() == 0 && phantom.orderViolations.get() == 0 && violations.isEmpty();
+    }
+
+    // Oracle for checking that the GC runs cleanups within a latency bound,
+    // measured from the moment the population became unreachable. Objects still
+    // unreclaimed when collect() gave up count as cleaned at that moment, a lower
+    // bound on their true latency: if the p99 rank lands among them, it fails
+    // once the time spent exceeds the bound. A population of which nothing was
+    // cleaned fails outright.
+    boolean checkCleanupLatency(Supplier<?> factory, int count, double maxP99Millis, List<String> report)
+            throws InterruptedException {
+        Tracking tracking = runCleaner(factory, count, new BitSet());
+        double[] cleaned = tracking.latencies();
+        int unreclaimed = count - cleaned.length;
+        double spentMillis = (tracking.collectedAt - tracking.releasedAt) / 1e6;
+        if (report != null) {
+            report.add(tracking.summary() + " unreclaimed=" + unreclaimed + " after " + spentMillis + "ms");
+        }
+        if (cleaned.length == 0) {
+            return false;
+        }
+        int rank = Math.min(count - 1, (int) (0.99 * count)); // As in percentile(), over all objects
+        return rank < cleaned.length ? cleaned[rank] <= maxP99Millis : spentMillis <= maxP99Millis;
+    }
+
+}
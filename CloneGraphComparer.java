@@ -0,0 +1,379 @@
+public class CloneGraphComparer {
+    /*
+     * Walks an object graph and its clone in lockstep. Field access goes through
+     * MethodHandles built once per class and cached in a ClassValue, so the hot
+     * path never touches core reflection. Every reference field of every copied
+     * node is classified as SHARED (the clone points at the very same object) or
+     * COPIED (it points at a distinct object, which is then walked in turn).
+     * Visited nodes are tracked in open-addressing identity tables over plain
+     * arrays, so cycles and aliasing cost no per-node allocation. Private fields
+     * of JDK classes need the matching --add-opens.
+     */
+    enum Sharing {
+        SHARED, COPIED
+    }
+
+    static final int MAX_MISMATCHES = 20;
+
+    /**
+     * Types whose instances may be shared between an original and its clone
+     * without making them dependent.
+     */
+    static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(String.class, Boolean.class,
+            Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class, Class.class, Locale.class, UUID.class));
+
+    static boolean isImmutable(Class<?> type) {
+        return IMMUTABLE_TYPES.contains(type) || type.isEnum() || Enum.class.isAssignableFrom(type);
+    }
+
+    static final MethodHandle TRUE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0,
+            Object.class, Object.class);
+    static final MethodHandle FALSE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0,
+            Object.class, Object.class);
+
+    static boolean eq(boolean a, boolean b) {
+        return a == b;
+    }
+
+    static boolean eq(byte a, byte b) {
+        return a == b;
+    }
+
+    static boolean eq(short a, short b) {
+        return a == b;
+    }
+
+    static boolean eq(char a, char b) {
+        return a == b;
+    }
+
+    static boolean eq(int a, int b) {
+        return a == b;
+    }
+
+    static boolean eq(long a, long b) {
+        return a == b;
+    }
+
+    // Bitwise, so that NaN fields copied verbatim compare equal
+    static boolean eq(float a, float b) {
+        return Float.floatToRawIntBits(a) == Float.floatToRawIntBits(b);
+    }
+
+    static boolean eq(double a, double b) {
+        return Double.doubleToRawLongBits(a) == Double.doubleToRawLongBits(b);
+    }
+
+    /**
+     * Accessors for one class: a single {@code (Object, Object) boolean} handle
+     * comparing all primitive fields, and one {@code (Object) Object} getter per
+     * reference field, including inherited ones.
+     */
+    static class Layout {
+        final Class<?> type;
+        final MethodHandle primitivesEqual;
+        final MethodHandle[] referenceGetters;
+        final String[] referenceNames;
+
+        Layout(Class<?> type) {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle equal = TRUE;
+            List<MethodHandle> getters = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            try {
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    for (Field f : c.getDeclaredFields()) {
+                        if (Modifier.isStatic(f.getModifiers())) {
+                            continue;
+                        }
+                        f.setAccessible(true);
+                        MethodHandle getter = lookup.unreflectGetter(f);
+                        if (f.getType().isPrimitive()) {
+                            getter = getter.asType(MethodType.methodType(f.getType(), Object.class));
+                            MethodHandle eq = lookup.findStatic(CloneGraphComparer.class, "eq",
+                                    MethodType.methodType(boolean.class, f.getType(), f.getType()));
+                            // equal = fieldEqual(a, b) ? equal(a, b) : false
+                            equal = MethodHandles.guardWithTest(MethodHandles.filterArguments(eq, 0, getter, getter),
+                                    equal, FALSE);
+                        } else {
+                            getters.add(getter.asType(MethodType.methodType(Object.class, Object.class)));
+                            names.add(c.getName() + "." + f.getName());
+                        }
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot access the fields of " + type.getName(), e);
+            }
+            primitivesEqual = equal;
+            referenceGetters = getters.toArray(new MethodHandle[0]);
+            referenceNames = names.toArray(new String[0]);
+        }
+    }
+
+    static final ClassValue<Layout> LAYOUTS = new ClassValue<Layout>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return new Layout(type);
+        }
+    };
+
+    /**
+     * Identity map from objects to objects, open addressing with linear probing
+     * over two parallel arrays.
+     */
+    static class IdentityTable {
+        Object[] keys = new Object[1024];
+        Object[] values = new Object[1024];
+        int size;
+
+        int slot(Object[] table, Object key) {
+            int mask = table.length - 1;
+            int h = System.identityHashCode(key) * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & mask;
+            while (table[i] != null && table[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        /**
+         * Maps the key to the value unless it is already mapped, in one probe.
+         *
+         * @return the previous value, null if the key was absent
+         */
+        Object putIfAbsent(Object key, Object value) {
+            int i = slot(keys, key);
+            if (keys[i] != null) {
+                return values[i];
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return null;
+        }
+
+        void grow() {
+            Object[] oldKeys = keys, oldValues = values;
+            keys = new Object[oldKeys.length * 2];
+            values = new Object[oldKeys.length * 2];
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != null) {
+                    int i = slot(keys, oldKeys[j]);
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * The outcome of comparing a graph with its clone.
+     */
+    static class Comparison {
+        long nodes;
+        final List<String> mismatches = new ArrayList<>();
+        final Map<String, Class<?>> mutableShared = new LinkedHashMap<>(); // Field -> type of a shared mutable value
+
+        // Per class: { shared, copied } for each reference field in Layout order,
+        // a single pair for the elements of object arrays
+        final Map<Class<?>, long[]> counts = new IdentityHashMap<>();
+
+        void mismatch(String message) {
+            if (mismatches.size() < MAX_MISMATCHES) {
+                mismatches.add(message);
+            }
+        }
+
+        long[] counts(Class<?> type, int referenceFields) {
+            long[] c = counts.get(type);
+            if (c == null) {
+                counts.put(type, c = new long[2 * referenceFields]);
+            }
+            return c;
+        }
+
+        /**
+         * @return field name to { shared, copied } counts; object array elements
+         *         are named after their component type with a trailing []
+         */
+        Map<String, long[]> fields() {
+            Map<String, long[]> fields = new LinkedHashMap<>();
+            for (Map.Entry<Class<?>, long[]> e : counts.entrySet()) {
+                long[] c = e.getValue();
+                if (e.getKey().isArray()) {
+                    fields.put(e.getKey().getComponentType().getName() + "[]", c);
+                    continue;
+                }
+                String[] names = LAYOUTS.get(e.getKey()).referenceNames;
+                for (int i = 0; i < names.length; i++) {
+                    fields.put(names[i], new long[] { c[2 * i], c[2 * i + 1] });
+                }
+            }
+            return fields;
+        }
+
+        /**
+         * @return SHARED or COPIED if every non-null value of the field was, null
+         *         if the field was mixed or never seen with a value
+         */
+        Sharing classify(String field) {
+            long[] c = fields().get(field);
+            if (c == null || c[0] > 0 && c[1] > 0) {
+                return null;
+            }
+            return c[0] > 0 ? Sharing.SHARED : c[1] > 0 ? Sharing.COPIED : null;
+        }
+
+        boolean isStructurallyEqual() {
+            return mismatches.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("nodes=").append(nodes);
+            for (Map.Entry<String, long[]> e : fields().entrySet()) {
+                sb.append(' ').append(e.getKey()).append("=shared:").append(e.getValue()[0]).append("/copied:")
+                        .append(e.getValue()[1]);
+            }
+            return sb.append(" mismatches=").append(mismatches).toString();
+        }
+    }
+
+    /**
+     * Pairs still to compare, kept in parallel arrays so the walk allocates
+     * nothing per node.
+     */
+    static class PairStack {
+        Object[] originals = new Object[256];
+        Object[] clones = new Object[256];
+        int[] depths = new int[256];
+        int size;
+
+        void push(Object original, Object clone, int depth) {
+            if (size == depths.length) {
+                originals = Arrays.copyOf(originals, size * 2);
+                clones = Arrays.copyOf(clones, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+            }
+            originals[size] = original;
+            clones[size] = clone;
+            depths[size++] = depth;
+        }
+    }
+
+    /**
+     * Compares a graph with its clone. Both graphs must have the same shape:
+     * same classes, equal primitive fields and array contents, and the same
+     * aliasing, i.e. two paths that reach one original node must reach one clone
+     * node. Shared nodes are not descended into.
+     *
+     * @param maxDepth how far to walk, 1 for the root's fields only
+     */
+    Comparison compare(Object original, Object clone, int maxDepth) {
+        Comparison result = new Comparison();
+        IdentityTable cloneOf = new IdentityTable();
+        IdentityTable originalOf = new IdentityTable();
+        PairStack pending = new PairStack();
+        pending.push(original, clone, 1);
+        while (pending.size > 0) {
+            int top = --pending.size;
+            Object a = pending.originals[top], b = pending.clones[top];
+            int depth = pending.depths[top];
+            pending.originals[top] = pending.clones[top] = null;
+            Object seen = cloneOf.putIfAbsent(a, b);
+            if (seen != null) {
+                if (seen != b) {
+                    result.mismatch("aliasing not preserved at " + describe(a));
+                }
+                continue;
+            }
+            if (originalOf.putIfAbsent(b, a) != null) {
+                result.mismatch("clone node reached from two originals: " + describe(b));
+                continue;
+            }
+            result.nodes++;
+            if (a.getClass() != b.getClass()) {
+                result.mismatch("class " + a.getClass().getName() + " cloned as " + b.getClass().getName());
+                continue;
+            }
+            if (a.getClass().isArray()) {
+                compareArrays(a, b, depth, maxDepth, result, pending);
+                continue;
+            }
+            Layout layout = LAYOUTS.get(a.getClass());
+            try {
+                if (!(boolean) layout.primitivesEqual.invokeExact(a, b)) {
+                    result.mismatch("primitive fields differ in " + describe(a));
+                }
+                long[] counts = result.counts(layout.type, layout.referenceGetters.length);
+                for (int i = 0; i < layout.referenceGetters.length; i++) {
+                    Object fa = (Object) layout.referenceGetters[i].invokeExact(a);
+                    Object fb = (Object) layout.referenceGetters[i].invokeExact(b);
+                    compareReferences(layout.referenceNames[i], fa, fb, counts, 2 * i, depth, maxDepth, result,
+                            pending);
+                }
+            } catch (Throwable t) {
+                throw new IllegalStateException("Cannot read the fields of " + a.getClass().getName(), t);
+            }
+        }
+        return result;
+    }
+
+    void compareArrays(Object a, Object b, int depth, int maxDepth, Comparison result, PairStack pending) {
+        if (a instanceof Object[]) {
+            Object[] x = (Object[]) a, y = (Object[]) b;
+            if (x.length != y.length) {
+                result.mismatch("array length " + x.length + " cloned as " + y.length);
+                return;
+            }
+            String field = a.getClass().getComponentType().getName() + "[]";
+            long[] counts = result.counts(a.getClass(), 1);
+            for (int i = 0; i < x.length; i++) {
+                compareReferences(field, x[i], y[i], counts, 0, depth, maxDepth, result, pending);
+            }
+            return;
+        }
+        boolean equal = a instanceof int[] ? Arrays.equals((int[]) a, (int[]) b)
+                : a instanceof long[] ? Arrays.equals((long[]) a, (long[]) b)
+                        : a instanceof byte[] ? Arrays.equals((byte[]) a, (byte[]) b)
+                                : a instanceof char[] ? Arrays.equals((char[]) a, (char[]) b)
+                                        : a instanceof short[] ? Arrays.equals((short[]) a, (short[]) b)
+                                                : a instanceof boolean[] ? Arrays.equals((boolean[]) a, (boolean[]) b)
+                                                        : a instanceof float[]
+                                                                ? Arrays.equals((float[]) a, (float[]) b)
+                                                                : Arrays.equals((double[]) a, (double[]) b);
+        if (!equal) {
+            result.mismatch("array contents differ in " + describe(a));
+        }
+    }
+
+    void compareReferences(String field, Object fa, Object fb, long[] counts, int slot, int depth, int maxDepth,
+            Comparison result, PairStack pending) {
+        if (fa == null || fb == null) {
+            if (fa != fb) {
+                result.mismatch(field + " is " + (fa == null ? "null" : "set") + " in the original but not the clone");
+            }
+            return;
+        }
+        if (fa == fb) {
+            counts[slot + Sharing.SHARED.ordinal()]++;
+            if (!isImmutable(fa.getClass())) {
+                result.mutableShared.putIfAbsent(field, fa.getClass());
+            }
+            return;
+        }
+        counts[slot + Sharing.COPIED.ordinal()]++;
+        if (depth < maxDepth) {
+            pending.push(fa, fb, depth + 1);
+        }
+    }
+
+    static String describe(Object o) {
+        return o.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(o));
+    }
+
+}
@@ -0,0 +1,240 @@
+public class ComplexityOracle {
+    enum ComplexityClass {
+        CONSTANT, LOGARITHMIC, LINEAR, LINEARITHMIC, QUADRATIC;
+
+        double cost(double n) {
+            switch (this) {
+            case CONSTANT:
+                return 1;
+            case LOGARITHMIC:
+                return Math.log(n);
+            case LINEAR:
+                return n;
+            case LINEARITHMIC:
+                return n * Math.log(n);
+            default:
+                return n * n;
+            }
+        }
+    }
+
+    /**
+     * One operation on a structure of size n; {@code i} is a pseudo-random index
+     * in {@code [0, n)}. The result is consumed so the JIT cannot drop the call.
+     */
+    interface Probe<C> {
+        int apply(C target, int i);
+    }
+
+    /**
+     * Spans 2^2 to 2^20, so log n grows 10 times over the ladder: that ratio
+     * separates CONSTANT from LOGARITHMIC, and LINEAR from LINEARITHMIC, so it
+     * must clearly exceed the slack.
+     */
+    static final int[] DEFAULT_SIZES = { 1 << 2, 1 << 5, 1 << 8, 1 << 11, 1 << 14, 1 << 17, 1 << 20 };
+
+    /**
+     * Tolerated rise, across the ladder, of the cost per unit of a complexity
+     * class once the memory hierarchy is divided out (see
+     * {@link #memoryReference}). Structures differ in how many cache lines one
+     * operation touches, so the reference removes most but not all of it. Kept
+     * well below the log n growth over {@link #DEFAULT_SIZES}, so an O(1)
+     * operation that degrades to O(log n) is caught.
+     */
+    static final double DEFAULT_SLACK = 4.0;
+
+    static final long TRIAL_NANOS = 5_000_000L;
+    static final int TRIALS = 5;
+    static final int WARMUP_TRIALS = 3;
+
+    static volatile int sink; // Consumes probe results
+
+    /**
+     * Measures the median cost of one probe for every size of the ladder. Every
+     * size is warmed up before any is timed, so the JIT has compiled the probe
+     * for all of them and the smallest size is not measured cold. The timed
+     * trials then visit the sizes round-robin, so a GC pause or a busy neighbour
+     * spreads over the ladder instead of skewing one size. Each trial runs
+     * probes until {@link #TRIAL_NANOS} elapse, so slow operations on large
+     * sizes stay bounded in time.
+     *
+     * @param factory builds a structure of the given size
+     * @param probe   the operation to time
+     * @param sizes   the size ladder, ascending
+     * @return median nanoseconds per probe, one per size
+     */
+    <C> double[] measure(IntFunction<? extends C> factory, Probe<? super C> probe, int[] sizes) {
+        List<C> targets = new ArrayList<>();
+        for (int n : sizes) {
+            targets.add(factory.apply(n));
+        }
+        for (int t = 0; t < WARMUP_TRIALS; t++) {
+            for (int s = 0; s < sizes.length; s++) {
+                trial(targets.get(s), probe, sizes[s]);
+            }
+        }
+        double[][] trials = new double[sizes.length][TRIALS];
+        for (int t = 0; t < TRIALS; t++) {
+            for (int s = 0; s < sizes.length; s++) {
+                trials[s][t] = trial(targets.get(s), probe, sizes[s]);
+            }
+        }
+        double[] nanos = new double[sizes.length];
+        for (int s = 0; s < sizes.length; s++) {
+            Arrays.sort(trials[s]);
+            nanos[s] = trials[s][TRIALS / 2]; // Median, robust against GC and scheduling outliers
+        }
+        return nanos;
+    }
+
+    <C> double trial(C target, Probe<? super C> probe, int n) {
+        int x = 0x9E3779B9 ^ n;
+        int acc = 0;
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int k = 0; k < 8; k++) {
+                x ^= x << 13; // xorshift, cheap enough not to skew the timing
+                x ^= x >>> 17;
+                x ^= x << 5;
+                acc += probe.apply(target, (x & Integer.MAX_VALUE) % n);
+            }
+            ops += 8;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < TRIAL_NANOS);
+        sink = acc;
+        return (double) elapsed / ops;
+    }
+
+    /**
+     * A CONSTANT-time reference for the memory hierarchy: an array of boxed
+     * integers allocated in shuffled order, read at random by the probe below.
+     * Every read lands on an unrelated cache line, as in a pointer-based
+     * structure of the same size, so its growth over the ladder is what caches
+     * and TLBs alone add to an O(1) operation.
+     */
+    static Integer[] memoryReference(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(n);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        Integer[] boxes = new Integer[n];
+        for (int k : order) {
+            boxes[k] = Integer.valueOf(k + 128); // Above the Integer cache, so each is a fresh object
+        }
+        return boxes;
+    }
+
+    /**
+     * Finds the lowest complexity class that bounds the measurements over all
+     * sizes: the one whose cost per unit, {@code nanos[i] / cost(sizes[i])},
+     * never rises by more than the slack from a smaller size to a larger one.
+     * A falling cost per unit is fine, since the fixed cost of a call weighs
+     * most on the smallest sizes.
+     *
+     * @return the fitted class, or null if even QUADRATIC does not fit
+     */
+    ComplexityClass fit(int[] sizes, double[] nanos, double slack) {
+        for (ComplexityClass c : ComplexityClass.values()) {
+            double lowest = Double.MAX_VALUE, rise = 0;
+            for (int i = 0; i < sizes.length; i++) {
+                double perUnit = nanos[i] / c.cost(sizes[i]);
+                rise = Math.max(rise, perUnit / lowest);
+                lowest = Math.min(lowest, perUnit);
+            }
+            if (rise <= slack) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Test oracle for checking that an operation does not grow faster than its
+     * declared complexity class over a geometric size ladder.
+     *
+     * @param factory  builds a structure of the given size
+     * @param probe    the operation to time
+     * @param declared the complexity class the implementation promises
+     * @param sizes    the size ladder, ascending, all at least 2
+     * @param slack    tolerated rise, see {@link #DEFAULT_SLACK}
+     * @param report   receives the measurements and fitted class, may be null
+     * @return true if the class fitted over all sizes, after dividing out the
+     *         memory hierarchy, is no higher than the declared one, false
+     *         otherwise
+     */
+    <C> boolean checkDeclaredComplexity(IntFunction<? extends C> factory, Probe<? super C> probe,
+            ComplexityClass declared, int[] sizes, double slack, List<String> report) {
+        for (int n : sizes) {
+            if (n < 2) {
+                throw new IllegalArgumentException("Size below 2, where log n is not positive: " + n);
+            }
+        }
+        double[] nanos = measure(factory, probe, sizes);
+        double[] memory = measure(ComplexityOracle::memoryReference, (Integer[] boxes, int i) -> boxes[i], sizes);
+        double[] normalized = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            normalized[i] = nanos[i] * memory[0] / memory[i];
+        }
+        ComplexityClass fitted = fit(sizes, normalized, slack);
+        if (report != null) {
+            report.add("sizes=" + Arrays.toString(sizes) + " ns/op=" + Arrays.toString(nanos) + " memory="
+                    + Arrays.toString(memory) + " fitted=" + fitted + " declared=" + declared);
+        }
+        return fitted != null && fitted.compareTo(declared) <= 0;
+    }
+
+    /**
+     * Test oracle for checking that get(int) is O(1) on lists that implement
+     * RandomAccess and at most O(n) on the others.
+     *
+     * @param factory builds a list holding 0..n-1
+     * @param report  receives the measurements, may be null
+     * @return true if get(int) scales as declared, false otherwise
+     */
+    boolean checkElementRetrievalComplexity(IntFunction<? extends List<Integer>> factory, List<String> report) {
+        ComplexityClass declared = factory.apply(1) instanceof RandomAccess ? ComplexityClass.CONSTANT
+                : ComplexityClass.LINEAR;
+        return checkDeclaredComplexity(factory, (List<Integer> list, int i) -> list.get(i), declared, DEFAULT_SIZES,
+                DEFAULT_SLACK, report);
+    }
+
+    /**
+     * Test oracle for checking that containsKey is O(log n) on SortedMaps and O(1)
+     * on the others (hash-based maps).
+     *
+     * @param factory builds a map with the keys 0..n-1
+     * @param report  receives the measurements, may be null
+     * @return true if containsKey scales as declared, false otherwise
+     */
+    boolean checkContainsKeyComplexity(IntFunction<? extends Map<Integer, ?>> factory, List<String> report) {
+        ComplexityClass declared = factory.apply(1) instanceof SortedMap ? ComplexityClass.LOGARITHMIC
+                : ComplexityClass.CONSTANT;
+        return checkDeclaredComplexity(factory, (Map<Integer, ?> map, int i) -> map.containsKey(i) ? 1 : 0, declared,
+                DEFAULT_SIZES, DEFAULT_SLACK, report);
+    }
+
+    /**
+     * Test oracle for checking that contains is O(log n) on SortedSets and O(1) on
+     * the others (hash-based sets).
+     *
+     * @param factory builds a set with the elements 0..n-1
+     * @param report  receives the measurements, may be null
+     * @return true if contains scales as declared, false otherwise
+     */
+    boolean checkSetContainsComplexity(IntFunction<? extends Set<Integer>> factory, List<String> report) {
+        ComplexityClass declared = factory.apply(1) instanceof SortedSet ? ComplexityClass.LOGARITHMIC
+                : ComplexityClass.CONSTANT;
+        return checkDeclaredComplexity(factory, (Set<Integer> set, int i) -> set.contains(i) ? 1 : 0, declared,
+                DEFAULT_SIZES, DEFAULT_SLACK, report);
+    }
+
+}
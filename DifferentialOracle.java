@@ -0,0 +1,231 @@
+public class DifferentialOracle {
+    /**
+     * Result of running one oracle against one implementation under test.
+     */
+    static class Outcome {
+        final String implementation;
+        final Boolean verdict; // null when the oracle threw instead of returning
+        final Class<? extends Throwable> exception;
+        final long nanos;
+
+        Outcome(String implementation, Boolean verdict, Class<? extends Throwable> exception, long nanos) {
+            this.implementation = implementation;
+            this.verdict = verdict;
+            this.exception = exception;
+            this.nanos = nanos;
+        }
+
+        boolean sameResult(Outcome other) {
+            return Objects.equals(verdict, other.verdict) && exception == other.exception;
+        }
+
+        String describe() {
+            return exception != null ? "threw " + exception.getName() : "returned " + verdict;
+        }
+    }
+
+    /**
+     * Timings below this are dominated by noise and never reported as timing
+     * divergences.
+     */
+    static final long MIN_REPORTED_NANOS = 1_000_000L;
+
+    /**
+     * Builds every implementation from the same input and runs the oracle on each
+     * of them, in parallel unless the timings are to be compared: oracles
+     * sharing the common pool slow each other down unevenly.
+     *
+     * @param input           the shared input, generated once
+     * @param implementations implementation name to a factory building it from the
+     *                        input (e.g. {@code ArrayList::new})
+     * @param oracle          the oracle to run on every implementation
+     * @param parallel        whether the implementations may run concurrently
+     * @return one outcome per implementation, in the iteration order of
+     *         {@code implementations}
+     */
+    <T, C> List<Outcome> runAll(T input, Map<String, ? extends Function<? super T, ? extends C>> implementations,
+            Predicate<? super C> oracle, boolean parallel) {
+        Stream<? extends Map.Entry<String, ? extends Function<? super T, ? extends C>>> entries = parallel
+                ? implementations.entrySet().parallelStream()
+                : implementations.entrySet().stream();
+        return entries.map(e -> run(e.getKey(), input, e.getValue(), oracle)).collect(Collectors.toList());
+    }
+
+    // A factory that rejects the input (TreeSet::new on a null element) is an
+    // outcome like any other, not the end of the round
+    <T, C> Outcome run(String implementation, T input, Function<? super T, ? extends C> factory,
+            Predicate<? super C> oracle) {
+        C target;
+        try {
+            target = factory.apply(input);
+        } catch (Exception e) {
+            return new Outcome(implementation, null, e.getClass(), 0);
+        }
+        long start = System.nanoTime();
+        try {
+            boolean verdict = oracle.test(target);
+            return new Outcome(implementation, verdict, null, System.nanoTime() - start);
+        } catch (Exception e) {
+            return new Outcome(implementation, null, e.getClass(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Test oracle for checking that all implementations agree with the first one on
+     * verdict and exception type, and that none of them is more than
+     * {@code timingFactor} times slower than the median.
+     *
+     * @param outcomes     the outcomes of one input, as returned by
+     *                     {@link #runAll}
+     * @param timingFactor the tolerated slowdown against the median, or a value
+     *                     {@code <= 0} to skip timing comparison
+     * @param divergences  receives one line per divergence found, may be null
+     * @return true if no divergence was found, false otherwise
+     */
+    boolean checkOutcomesAgree(List<Outcome> outcomes, double timingFactor, List<String> divergences) {
+        return divergent(outcomes, timingFactor, divergences).isEmpty();
+    }
+
+    /**
+     * Returns the implementations that diverge from the first one, or from the
+     * median timing, as judged by {@link #checkOutcomesAgree}.
+     */
+    Set<String> divergent(List<Outcome> outcomes, double timingFactor, List<String> divergences) {
+        Set<String> divergent = new LinkedHashSet<>();
+        if (outcomes.isEmpty()) {
+            return divergent; // Nothing to compare
+        }
+        Outcome reference = outcomes.get(0);
+        for (Outcome outcome : outcomes.subList(1, outcomes.size())) {
+            if (!outcome.sameResult(reference)) {
+                divergent.add(outcome.implementation);
+                report(divergences, outcome.implementation + " " + outcome.describe() + " but "
+                        + reference.implementation + " " + reference.describe());
+            }
+        }
+        if (timingFactor > 0) {
+            long[] times = outcomes.stream().mapToLong(o -> o.nanos).sorted().toArray();
+            long median = times[times.length / 2];
+            for (Outcome outcome : outcomes) {
+                if (outcome.nanos >= MIN_REPORTED_NANOS && outcome.nanos > median * timingFactor) {
+                    divergent.add(outcome.implementation);
+                    report(divergences, outcome.implementation + " took " + outcome.nanos + "ns, median is "
+                            + median + "ns");
+                }
+            }
+        }
+        return divergent;
+    }
+
+    /**
+     * Test oracle for checking a generic oracle differentially: each input is
+     * generated once and fanned out to every implementation.
+     *
+     * @param generator       produces one input per round
+     * @param rounds          the number of inputs to generate
+     * @param implementations implementation name to a factory building it from an
+     *                        input
+     * @param oracle          the oracle to run on every implementation
+     * @param timingFactor    the tolerated slowdown against the median, or a value
+     *                        {@code <= 0} to skip timing comparison
+     * @param divergences     receives one line per divergence found, may be null
+     * @return true if all implementations agreed on every input, false otherwise
+     */
+    <T, C> boolean checkAgreement(Supplier<? extends T> generator, int rounds,
+            Map<String, ? extends Function<? super T, ? extends C>> implementations, Predicate<? super C> oracle,
+            double timingFactor, List<String> divergences) {
+        boolean agree = true;
+        for (int round = 0; round < rounds; round++) {
+            T input = generator.get();
+            OracleEvents.Batch event = new OracleEvents.Batch();
+            event.begin();
+            List<Outcome> outcomes = runAll(input, implementations, oracle, timingFactor <= 0);
+            List<String> found = new ArrayList<>();
+            Set<String> divergent = divergent(outcomes, timingFactor, found);
+            if (!divergent.isEmpty()) {
+                agree = false;
+                for (String line : found) {
+                    report(divergences, "round " + round + ": " + line);
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.batch = "differential round " + round;
+                event.calls = outcomes.size();
+                event.failures = divergent.size();
+                event.commit();
+            }
+        }
+        return agree;
+    }
+
+    /**
+     * Test oracle for running a {@code ListOracle} check differentially over
+     * several List implementations, e.g. {@code ArrayList::new},
+     * {@code LinkedList::new} and {@code CopyOnWriteArrayList::new}.
+     *
+     * @param generator       produces the elements of one input per round
+     * @param rounds          the number of inputs to generate
+     * @param implementations implementation name to a copy constructor
+     * @param oracle          the list oracle, e.g.
+     *                        {@code l -> listOracle.checkIteratorSequence(l)}
+     * @param timingFactor    the tolerated slowdown against the median, or a value
+     *                        {@code <= 0} to skip timing comparison
+     * @param divergences     receives one line per divergence found, may be null
+     * @return true if all implementations agreed on every input, false otherwise
+     */
+    <E> boolean checkListImplementationsAgree(Supplier<? extends Collection<E>> generator, int rounds,
+            Map<String, Function<Collection<E>, List<E>>> implementations, Predicate<List<E>> oracle,
+            double timingFactor, List<String> divergences) {
+        return checkAgreement(generator, rounds, implementations, oracle, timingFactor, divergences);
+    }
+
+    /**
+     * Test oracle for running a {@code SetOracle} check differentially over
+     * several Set implementations, e.g. {@code HashSet::new},
+     * {@code TreeSet::new} and {@code ConcurrentSkipListSet::new}.
+     *
+     * @param generator       produces the elements of one input per round
+     * @param rounds          the number of inputs to generate
+     * @param implementations implementation name to a copy constructor
+     * @param oracle          the set oracle
+     * @param timingFactor    the tolerated slowdown against the median, or a value
+     *                        {@code <= 0} to skip timing comparison
+     * @param divergences     receives one line per divergence found, may be null
+     * @return true if all implementations agreed on every input, false otherwise
+     */
+    <E> boolean checkSetImplementationsAgree(Supplier<? extends Collection<E>> generator, int rounds,
+            Map<String, Function<Collection<E>, Set<E>>> implementations, Predicate<Set<E>> oracle,
+            double timingFactor, List<String> divergences) {
+        return checkAgreement(generator, rounds, implementations, oracle, timingFactor, divergences);
+    }
+
+    /**
+     * Test oracle for running a {@code MapOracle} check differentially over
+     * several Map implementations, e.g. {@code HashMap::new}, {@code TreeMap::new}
+     * and {@code ConcurrentSkipListMap::new}.
+     *
+     * @param generator       produces the mappings of one input per round
+     * @param rounds          the number of inputs to generate
+     * @param implementations implementation name to a copy constructor
+     * @param oracle          the map oracle
+     * @param timingFactor    the tolerated slowdown against the median, or a value
+     *                        {@code <= 0} to skip timing comparison
+     * @param divergences     receives one line per divergence found, may be null
+     * @return true if all implementations agreed on every input, false otherwise
+     */
+    <K, V> boolean checkMapImplementationsAgree(Supplier<? extends Map<K, V>> generator, int rounds,
+            Map<String, Function<Map<K, V>, Map<K, V>>> implementations, Predicate<Map<K, V>> oracle,
+            double timingFactor, List<String> divergences) {
+        return checkAgreement(generator, rounds, implementations, oracle, timingFactor, divergences);
+    }
+
+    void report(List<String> divergences, String line) {
+        if (divergences != null) {
+            synchronized (divergences) {
+                divergences.add(line);
+            }
+        }
+    }
+
+}
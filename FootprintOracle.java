@@ -0,0 +1,154 @@
+public class FootprintOracle {
+    /*
+     * Object sizes come from Instrumentation, so the JVM must be started with
+     * this class as an agent (a jar whose manifest names it as Premain-Class).
+     * Walking the fields of JDK collections additionally needs
+     * --add-opens java.base/java.util=ALL-UNNAMED (and java.util.concurrent for
+     * the concurrent ones).
+     */
+    static volatile Instrumentation instrumentation;
+
+    public static void premain(String args, Instrumentation inst) {
+        instrumentation = inst;
+    }
+
+    public static void agentmain(String args, Instrumentation inst) {
+        instrumentation = inst;
+    }
+
+    /**
+     * Instance reference fields of a class and all its superclasses.
+     */
+    static final ClassValue<Field[]> REFERENCE_FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(f.getModifiers()) && !f.getType().isPrimitive()) {
+                        f.setAccessible(true);
+                        fields.add(f);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    /**
+     * Sums the shallow sizes of every object reachable from {@code root}, not
+     * counting the excluded objects nor anything reachable only through them.
+     * Class objects, class loaders and threads are never followed.
+     *
+     * @param root     the object graph to measure
+     * @param excluded objects owned by the caller, such as the elements, compared
+     *                 by identity
+     * @return the deep size in bytes
+     */
+    long deepSize(Object root, Set<Object> excluded) {
+        Instrumentation inst = instrumentation;
+        if (inst == null) {
+            throw new IllegalStateException("FootprintOracle must be loaded as a -javaagent");
+        }
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        visited.addAll(excluded);
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long total = 0;
+        while (!pending.isEmpty()) {
+            Object o = pending.pop();
+            if (o == null || o instanceof Class || o instanceof ClassLoader || o instanceof Thread || !visited.add(o)) {
+                continue;
+            }
+            total += inst.getObjectSize(o);
+            Class<?> type = o.getClass();
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (Object element : (Object[]) o) {
+                        pending.push(element);
+                    }
+                }
+                continue;
+            }
+            for (Field f : REFERENCE_FIELDS.get(type)) {
+                try {
+                    pending.push(f.get(o));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Measures the structural overhead per element of a collection or map,
+     * i.e. its deep size minus the elements (and keys and values) themselves,
+     * divided by the element count.
+     *
+     * @param factory builds a Collection or Map holding n distinct elements
+     * @param sizes   the element counts to measure, each greater than zero
+     * @return bytes per element, one per size
+     */
+    double[] overheadCurve(IntFunction<?> factory, int[] sizes) {
+        long empty = deepSize(factory.apply(0), Collections.emptySet());
+        double[] curve = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            Object container = factory.apply(sizes[i]);
+            curve[i] = (double) (deepSize(container, elementsOf(container)) - empty) / sizes[i];
+        }
+        return curve;
+    }
+
+    Set<Object> elementsOf(Object container) {
+        Set<Object> elements = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (container instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) container).entrySet()) {
+                elements.add(e.getKey());
+                elements.add(e.getValue());
+            }
+        } else {
+            elements.addAll((Collection<?>) container);
+        }
+        elements.remove(null);
+        return elements;
+    }
+
+    /**
+     * Test oracle for checking that the per-element overhead of a collection
+     * stays below an upper bound at every measured size.
+     *
+     * @param factory            builds a Collection or Map holding n distinct
+     *                           elements, e.g. {@code n -> range(n, ArrayList::new)}
+     * @param sizes              the element counts to measure
+     * @param maxBytesPerElement the upper bound on overhead per element
+     * @param report             receives the overhead curve, may be null
+     * @return true if no size exceeds the bound, false otherwise
+     */
+    boolean checkFootprintBound(IntFunction<?> factory, int[] sizes, double maxBytesPerElement,
+            List<String> report) {
+        double[] curve = overheadCurve(factory, sizes);
+        if (report != null) {
+            report.add("sizes=" + Arrays.toString(sizes) + " bytes/element=" + Arrays.toString(curve));
+        }
+        for (double bytes : curve) {
+            if (bytes > maxBytesPerElement) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds a collection holding the distinct Integers 0..n-1, for use as a
+     * footprint factory.
+     */
+    static <C extends Collection<Integer>> C range(int n, Supplier<C> constructor) {
+        C c = constructor.get();
+        for (int i = 0; i < n; i++) {
+            c.add(i);
+        }
+        return c;
+    }
+
+}
@@ -0,0 +1,272 @@
+public class FormatPlan {
+    /*
+     * A format string parsed once, the way java.util.Formatter parses it, into
+     * its specifiers and the argument category each one consumes. Plans are
+     * cached per format string, so the format oracles can judge millions of
+     * argument tuples against a few thousand formats without parsing again.
+     *
+     * Errors that depend only on the format (unknown conversions, illegal
+     * flag combinations, bad precision, invalid argument indexes) are found
+     * once, by formatting every specifier alone with the most permissive sample
+     * argument of its category. Errors that depend on the arguments (missing
+     * arguments, wrong types, invalid code points, flags some argument classes
+     * reject) are predicted per tuple from the plan.
+     */
+    static final Pattern SPECIFIER = Pattern
+            .compile("%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])"); // As in java.util.Formatter
+    static final int MAX_PLANS = 100_000;
+    static final ConcurrentHashMap<String, FormatPlan> PLANS = new ConcurrentHashMap<>();
+
+    // Date/time conversions a TemporalAccessor class cannot format, e.g. %tH for
+    // a LocalDate; which fields are supported is decided by the class, so each
+    // pair is probed once
+    static final ClassValue<Map<Character, Boolean>> TEMPORAL_SUPPORT = new ClassValue<Map<Character, Boolean>>() {
+        @Override
+        protected Map<Character, Boolean> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    enum Category {
+        GENERAL, CHARACTER, INTEGRAL, FLOATING, DATE_TIME, NONE;
+
+        static Category of(boolean dateTime, char conversion) {
+            if (dateTime) {
+                return DATE_TIME;
+            }
+            switch (conversion) {
+            case 'b': case 'B': case 'h': case 'H': case 's': case 'S':
+                return GENERAL;
+            case 'c': case 'C':
+                return CHARACTER;
+            case 'd': case 'o': case 'x': case 'X':
+                return INTEGRAL;
+            case 'e': case 'E': case 'f': case 'g': case 'G': case 'a': case 'A':
+                return FLOATING;
+            case 'n': case '%':
+                return NONE;
+            default:
+                return null; // Unknown conversion
+            }
+        }
+
+        boolean accepts(Object arg, char conversion) {
+            switch (this) {
+            case CHARACTER:
+                return arg instanceof Character || arg instanceof Byte || arg instanceof Short
+                        || arg instanceof Integer;
+            case INTEGRAL:
+                return arg instanceof Byte || arg instanceof Short || arg instanceof Integer || arg instanceof Long
+                        || arg instanceof BigInteger;
+            case FLOATING:
+                return arg instanceof Float || arg instanceof Double
+                        || arg instanceof BigDecimal && conversion != 'a' && conversion != 'A';
+            case DATE_TIME:
+                return arg instanceof Long || arg instanceof Calendar || arg instanceof Date
+                        || arg instanceof TemporalAccessor;
+            default:
+                return true;
+            }
+        }
+
+        // The sample accepted with the fewest flag restrictions: BigInteger allows
+        // the sign flags on %o and %x, a Formattable allows '#' on %s
+        Object sample() {
+            switch (this) {
+            case CHARACTER:
+                return 'a';
+            case INTEGRAL:
+                return BigInteger.ZERO;
+            case FLOATING:
+                return 0.0;
+            case DATE_TIME:
+                return 0L;
+            default:
+                return (Formattable) (formatter, flags, width, precision) -> {
+                };
+            }
+        }
+    }
+
+    static class Specifier {
+        final String text;
+        final String alone; // The text without index and its '<', validated with one sample
+        final int index; // Zero-based argument index, -1 for %n, %% and a '<' with nothing before
+        final boolean badIndex; // An explicit index Formatter rejects while parsing
+        final Category category;
+        final char conversion;
+        final String flags;
+
+        Specifier(Matcher m, int index, boolean badIndex, Category category, String flags) {
+            this.text = m.group();
+            this.alone = "%" + flags.replace("<", "") + (m.group(3) == null ? "" : m.group(3))
+                    + (m.group(4) == null ? "" : m.group(4)) + (m.group(5) == null ? "" : m.group(5)) + m.group(6);
+            this.index = index;
+            this.badIndex = badIndex;
+            this.category = category;
+            this.conversion = m.group(6).charAt(0);
+            this.flags = flags;
+        }
+
+        // The flag checks the permissive samples pass but other arguments fail:
+        // '#' on %s needs a Formattable, even for null, and the sign flags on %o
+        // and %x need a BigInteger rather than another integral type
+        boolean flagsMismatch(Object arg) {
+            if (category == Category.GENERAL) {
+                return flags.indexOf('#') >= 0 && (conversion == 's' || conversion == 'S')
+                        && !(arg instanceof Formattable);
+            }
+            return category == Category.INTEGRAL && conversion != 'd' && arg != null
+                    && !(arg instanceof BigInteger) && category.accepts(arg, conversion)
+                    && (flags.indexOf('+') >= 0 || flags.indexOf(' ') >= 0 || flags.indexOf('(') >= 0);
+        }
+    }
+
+    final String format;
+    final List<Specifier> specifiers = new ArrayList<>();
+    final List<String> literals = new ArrayList<>(); // Text before each specifier, plus the tail
+    int requiredArguments;
+    Class<? extends IllegalFormatException> formatError; // Null if the format itself is valid
+    Class<? extends IllegalFormatException> malformed; // A % that does not start a specifier
+
+    /**
+     * Returns the cached plan of a format string, parsing it on first use.
+     */
+    static FormatPlan of(String format) {
+        FormatPlan plan = PLANS.get(format);
+        if (plan == null) {
+            plan = new FormatPlan(format);
+            if (PLANS.size() < MAX_PLANS) {
+                PLANS.putIfAbsent(format, plan);
+            }
+        }
+        return plan;
+    }
+
+    FormatPlan(String format) {
+        this.format = format;
+        Matcher m = SPECIFIER.matcher(format);
+        int ordinary = 0, previous = -1, text = 0;
+        for (int i = format.indexOf('%'); i >= 0; i = format.indexOf('%', text)) {
+            literals.add(format.substring(text, i));
+            boolean matched = m.region(i, format.length()).lookingAt();
+            Category category = matched ? Category.of(m.group(5) != null, m.group(6).charAt(0)) : null;
+            if (category == null) {
+                // A dangling % or an unknown conversion; an invalid index before it is reported first
+                malformed = matched ? parseError(m.group()) : UnknownFormatConversionException.class;
+                break;
+            }
+            int index = -1;
+            boolean badIndex = false;
+            String flags = m.group(2) == null ? "" : m.group(2);
+            if (m.group(1) != null) {
+                // Formatter rejects an index that is not positive or overflows an int
+                String digits = m.group(1).substring(0, m.group(1).length() - 1);
+                long explicit = digits.length() > 10 ? -1 : Long.parseLong(digits);
+                badIndex = explicit <= 0 || explicit > Integer.MAX_VALUE;
+                index = badIndex ? -1 : (int) (explicit - 1);
+            }
+            if (category == Category.NONE) {
+                index = -1;
+            } else if (flags.indexOf('<') >= 0) {
+                index = previous;
+            } else if (m.group(1) == null) {
+                index = ordinary++;
+            }
+            if (category != Category.NONE) {
+                previous = index;
+                requiredArguments = Math.max(requiredArguments, index + 1);
+            }
+            specifiers.add(new Specifier(m, index, badIndex, category, flags));
+            text = m.end();
+        }
+        literals.add(format.substring(text));
+        validate();
+    }
+
+    static boolean supportsTemporal(Object arg, char conversion) {
+        if (!(arg instanceof TemporalAccessor)) {
+            return true; // Long, Calendar and Date carry every field
+        }
+        return TEMPORAL_SUPPORT.get(arg.getClass()).computeIfAbsent(conversion, c -> {
+            try {
+                new Formatter(new StringBuilder(), Locale.ROOT).format("%t" + c, arg);
+                return true;
+            } catch (IllegalFormatConversionException e) {
+                return false;
+            }
+        });
+    }
+
+    static Class<? extends IllegalFormatException> parseError(String specifier) {
+        try {
+            new Formatter(new StringBuilder(), Locale.ROOT).format(specifier);
+            return UnknownFormatConversionException.class;
+        } catch (IllegalFormatException e) {
+            return e.getClass();
+        }
+    }
+
+    // Formats every specifier alone, in order, to find the errors that no
+    // argument can avoid. Formatter parses the whole format before it formats
+    // any argument, so the first of these errors wins over any argument error.
+    void validate() {
+        for (Specifier s : specifiers) {
+            try {
+                if (s.badIndex || s.flags.indexOf('<') != s.flags.lastIndexOf('<')) {
+                    formatError = parseError(s.text); // Removing a repeated '<' would hide the duplicate
+                    return;
+                } else if (s.category == Category.NONE) {
+                    new Formatter(new StringBuilder(), Locale.ROOT).format(s.text); // Takes no index or '<'
+                } else {
+                    new Formatter(new StringBuilder(), Locale.ROOT).format(s.alone, s.category.sample());
+                }
+            } catch (IllegalFormatException e) {
+                formatError = e.getClass();
+                return;
+            }
+        }
+        formatError = malformed;
+    }
+
+    /**
+     * Predicts whether formatting these arguments with this plan fails.
+     *
+     * @param args the arguments, as passed to String.format
+     * @return the IllegalFormatException class String.format is expected to
+     *         throw, or null if it is expected to succeed
+     */
+    Class<? extends IllegalFormatException> expectedError(Object[] args) {
+        if (formatError != null) {
+            return formatError;
+        }
+        // Formatter stops at the first failing specifier, so they are judged in order
+        for (Specifier s : specifiers) {
+            if (s.category == Category.NONE) {
+                continue;
+            }
+            if (s.index < 0 || args != null && s.index >= args.length) {
+                return MissingFormatArgumentException.class;
+            }
+            Object arg = args == null ? null : args[s.index]; // A null array formats every argument as null
+            if (s.flagsMismatch(arg)) {
+                return FormatFlagsConversionMismatchException.class;
+            }
+            if (arg == null) {
+                continue;
+            }
+            if (!s.category.accepts(arg, s.conversion)) {
+                return IllegalFormatConversionException.class;
+            }
+            if (s.category == Category.DATE_TIME && !supportsTemporal(arg, s.conversion)) {
+                return IllegalFormatConversionException.class;
+            }
+            if (s.category == Category.CHARACTER && !(arg instanceof Character)
+                    && !Character.isValidCodePoint(((Number) arg).intValue())) {
+                return IllegalFormatCodePointException.class;
+            }
+        }
+        return null;
+    }
+
+}
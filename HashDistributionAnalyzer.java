@@ -0,0 +1,249 @@
+public class HashDistributionAnalyzer {
+    /*
+     * Streams keys through hashCode and tallies how a HashMap would spread them,
+     * separately per key class. Each class keeps an off-heap open-addressing
+     * table of its distinct hash codes and how often each occurred, so exact
+     * hash collisions (equal hashCode values) are counted directly, and the
+     * bucket occupancy of any HashMap table size is obtained by folding the
+     * counts, without replaying the keys. Off-heap memory grows with the
+     * distinct hash codes of a class rather than with the largest table size,
+     * so many key classes with few keys each stay cheap.
+     */
+    static final int DEFAULT_MAX_TABLE_SIZE = 1 << 22;
+    static final int MAXIMUM_CAPACITY = 1 << 30; // HashMap.MAXIMUM_CAPACITY
+    static final int TREEIFY_THRESHOLD = 8; // HashMap.TREEIFY_THRESHOLD
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    static final int MAX_DISTINCT_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / Integer.BYTES); // Per buffer
+
+    /**
+     * HashMap's spread function: XORs the upper half of the hash code into the
+     * lower half, since only the low bits select the bucket.
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The table size of a HashMap with the default initial capacity and load
+     * factor after {@code keys} insertions.
+     */
+    static int hashMapTableSize(long keys) {
+        int size = 16;
+        while (size < MAXIMUM_CAPACITY && keys > (long) (size * DEFAULT_LOAD_FACTOR)) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    static IntBuffer allocateInts(int capacity) {
+        long bytes = (long) capacity * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many counters for one buffer: " + capacity);
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Off-heap counters for the keys of one class.
+     */
+    static class Distribution {
+        final int maxTableSize;
+        long keys;
+
+        // Open-addressing table of distinct hash codes and, in the same slot of
+        // counts, the keys with each; 0 marks an empty slot, so the hash code 0
+        // is counted separately
+        IntBuffer hashes = allocateInts(1024);
+        IntBuffer counts = allocateInts(1024);
+        int distinct;
+        int zeroCount;
+
+        Distribution(int maxTableSize) {
+            this.maxTableSize = maxTableSize;
+        }
+
+        void add(int hash) {
+            keys++;
+            if (hash == 0) {
+                if (zeroCount++ == 0) {
+                    distinct++;
+                }
+                return;
+            }
+            if (distinct >= hashes.capacity() - hashes.capacity() / 8) {
+                // Only reachable at MAX_DISTINCT_CAPACITY, where the table can no longer grow
+                throw new IllegalStateException("More than " + distinct + " distinct hash codes to count");
+            }
+            if (insert(hashes, counts, hash, 1)) {
+                distinct++;
+                if (distinct * 2L > hashes.capacity() && hashes.capacity() < MAX_DISTINCT_CAPACITY) {
+                    IntBuffer largerHashes = allocateInts(hashes.capacity() * 2);
+                    IntBuffer largerCounts = allocateInts(hashes.capacity() * 2);
+                    for (int i = 0; i < hashes.capacity(); i++) {
+                        if (hashes.get(i) != 0) {
+                            insert(largerHashes, largerCounts, hashes.get(i), counts.get(i));
+                        }
+                    }
+                    hashes = largerHashes;
+                    counts = largerCounts;
+                }
+            }
+        }
+
+        // Adds count to the slot of hash; true if the hash code was new
+        static boolean insert(IntBuffer hashes, IntBuffer counts, int hash, int count) {
+            int mask = hashes.capacity() - 1;
+            for (int i = spread(hash * 0x9E3779B9) & mask;; i = (i + 1) & mask) {
+                int slot = hashes.get(i);
+                if (slot == hash) {
+                    counts.put(i, counts.get(i) + count);
+                    return false;
+                }
+                if (slot == 0) {
+                    hashes.put(i, hash);
+                    counts.put(i, count);
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Bucket occupancy for a power-of-two table: every distinct hash code
+         * adds its count to the bucket HashMap would put it in.
+         */
+        int[] fold(int tableSize) {
+            int[] folded = new int[tableSize];
+            folded[0] += zeroCount; // spread(0) == 0
+            for (int i = 0; i < hashes.capacity(); i++) {
+                int hash = hashes.get(i);
+                if (hash != 0) {
+                    folded[spread(hash) & (tableSize - 1)] += counts.get(i);
+                }
+            }
+            return folded;
+        }
+
+        Report report(Class<?> keyClass) {
+            int tableSize = Math.min(hashMapTableSize(keys), maxTableSize);
+            int[] folded = fold(tableSize);
+            Report r = new Report();
+            r.keyClass = keyClass;
+            r.keys = keys;
+            r.distinctHashes = distinct;
+            r.tableSize = tableSize;
+            r.chainLengths = new long[TREEIFY_THRESHOLD + 1];
+            double expected = (double) keys / tableSize;
+            double chiSquare = 0, probes = 0;
+            long occupied = 0;
+            for (int count : folded) {
+                if (count > 0) {
+                    occupied++;
+                }
+                r.maxChain = Math.max(r.maxChain, count);
+                r.chainLengths[Math.min(count, TREEIFY_THRESHOLD)]++;
+                chiSquare += (count - expected) * (count - expected);
+                probes += (double) count * (count + 1) / 2; // Finding each key of a chain in turn
+            }
+            if (keys > 0) {
+                double df = tableSize - 1;
+                r.chiSquare = chiSquare / expected;
+                r.chiSquareZ = (r.chiSquare - df) / Math.sqrt(2 * df);
+                r.collisionRate = (double) (keys - occupied) / keys;
+                r.idealCollisionRate = 1 - tableSize * -Math.expm1(-expected) / keys;
+                r.meanProbes = probes / keys;
+            }
+            r.idealMeanProbes = 1 + expected / 2;
+            return r;
+        }
+    }
+
+    /**
+     * Distribution quality of the keys of one class at the table size a HashMap
+     * holding them would have.
+     */
+    static class Report {
+        Class<?> keyClass;
+        long keys;
+        long distinctHashes;
+        int tableSize;
+        double collisionRate; // Share of keys landing in an occupied bucket
+        double idealCollisionRate; // The same for uniformly random hashing
+        double chiSquare; // Of bucket occupancy against a uniform spread
+        double chiSquareZ; // Normal approximation; large positive values mean clustering
+        double meanProbes; // Mean chain nodes visited by a successful lookup
+        double idealMeanProbes;
+        int maxChain;
+        long[] chainLengths; // Buckets per chain length, the last slot counts treeified lengths
+
+        @Override
+        public String toString() {
+            return keyClass.getName() + ": keys=" + keys + " distinctHashes=" + distinctHashes + " table="
+                    + tableSize + " collisionRate=" + collisionRate + " (ideal " + idealCollisionRate + ") chiSquare="
+                    + chiSquare + " z=" + chiSquareZ + " meanProbes=" + meanProbes + " (ideal " + idealMeanProbes
+                    + ") maxChain=" + maxChain + " chains=" + Arrays.toString(chainLengths);
+        }
+    }
+
+    final int maxTableSize;
+    final Map<Class<?>, Distribution> distributions = new LinkedHashMap<>();
+
+    HashDistributionAnalyzer() {
+        this(DEFAULT_MAX_TABLE_SIZE);
+    }
+
+    /**
+     * @param maxTableSize the largest table size analysed, a power of two; key
+     *                     counts whose HashMap table would be larger are
+     *                     reported at this size
+     */
+    HashDistributionAnalyzer(int maxTableSize) {
+        if (Integer.bitCount(maxTableSize) != 1 || maxTableSize > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Not a power of two table size: " + maxTableSize);
+        }
+        this.maxTableSize = maxTableSize;
+    }
+
+    void accept(Object key) {
+        Class<?> keyClass = key == null ? Void.class : key.getClass();
+        distributions.computeIfAbsent(keyClass, c -> new Distribution(maxTableSize))
+                .add(key == null ? 0 : key.hashCode());
+    }
+
+    void acceptAll(Iterable<?> keys) {
+        for (Object key : keys) {
+            accept(key);
+        }
+    }
+
+    List<Report> reports() {
+        List<Report> reports = new ArrayList<>();
+        for (Map.Entry<Class<?>, Distribution> e : distributions.entrySet()) {
+            reports.add(e.getValue().report(e.getKey()));
+        }
+        return reports;
+    }
+
+    /**
+     * Test oracle for checking that the hash codes of every key class spread over
+     * HashMap buckets about as well as uniformly random hash codes would.
+     *
+     * @param keys   the keys, typically millions of them
+     * @param slack  tolerated factor over the ideal collision rate
+     * @param report receives one line per key class, may be null
+     * @return true if no key class collides more than {@code slack} times the
+     *         random-hashing rate, false otherwise
+     */
+    boolean checkCollisionRate(Iterable<?> keys, double slack, List<String> report) {
+        HashDistributionAnalyzer analyzer = new HashDistributionAnalyzer(maxTableSize);
+        analyzer.acceptAll(keys);
+        boolean ok = true;
+        for (Report r : analyzer.reports()) {
+            if (report != null) {
+                report.add(r.toString());
+            }
+            ok &= r.collisionRate <= r.idealCollisionRate * slack + 1e-9;
+        }
+        return ok;
+    }
+
+}
@@ -0,0 +1,222 @@
+public class InternStressOracle {
+    /*
+     * Interns large populations of strings from many threads at once. Every
+     * phase uses keys unique to that phase, so each key enters the JVM string
+     * table exactly once during the phase, and every thread builds a fresh
+     * String instance per intern call so that only intern() can make the
+     * results identical. The first result seen for a key is published in an
+     * AtomicReferenceArray; every later result, from any thread, must be that
+     * very object.
+     */
+    static final int MAX_SAMPLES = 10;
+    static final AtomicLong PHASES = new AtomicLong();
+
+    /**
+     * JVM string table statistics from the VM.stringtable diagnostic command,
+     * or -1 where the command is unavailable (non-HotSpot JVMs, restricted
+     * management access).
+     */
+    static class TableStats {
+        long buckets = -1;
+        long entries = -1;
+        long footprintBytes = -1;
+
+        static final int READ_ATTEMPTS = 20;
+
+        // The table is unavailable while it is being resized or cleaned, so a
+        // read is retried a few times
+        static TableStats read() {
+            TableStats stats = new TableStats();
+            for (int attempt = 0; attempt < READ_ATTEMPTS && stats.entries < 0; attempt++) {
+                try {
+                    if (attempt > 0) {
+                        Thread.sleep(25);
+                    }
+                    Object text = ManagementFactory.getPlatformMBeanServer().invoke(
+                            new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmStringtable",
+                            new Object[] { new String[0] }, new String[] { String[].class.getName() });
+                    stats.parse(String.valueOf(text));
+                } catch (JMException | RuntimeException e) {
+                    return stats; // Leave the statistics unknown
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return stats;
+                }
+            }
+            return stats;
+        }
+
+        void parse(String text) {
+            for (String line : text.split("\n")) {
+                String[] parts = line.split("[:=]");
+                if (parts.length < 2) {
+                    continue;
+                }
+                String label = parts[0].trim();
+                if (label.equals("Number of buckets")) {
+                    buckets = Long.parseLong(parts[1].trim());
+                } else if (label.equals("Number of entries")) {
+                    entries = Long.parseLong(parts[1].trim());
+                } else if (label.equals("Total footprint") && parts.length > 2) {
+                    footprintBytes = Long.parseLong(parts[2].trim().split("\\s+")[0]);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "buckets=" + buckets + " entries=" + entries + " footprint=" + footprintBytes + "B";
+        }
+    }
+
+    /**
+     * The outcome of one stress phase.
+     */
+    static class Phase {
+        int threads;
+        int distinct; // Keys interned at least once
+        long interns;
+        long nanos;
+        final AtomicLong violations = new AtomicLong();
+        final Queue<String> samples = new ConcurrentLinkedQueue<>();
+        TableStats before;
+        TableStats after;
+
+        double throughput() {
+            return interns * 1e9 / nanos;
+        }
+
+        void violation(String message) {
+            violations.incrementAndGet();
+            if (samples.size() < MAX_SAMPLES) {
+                samples.add(message);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "threads=" + threads + " interns=" + interns + " distinct=" + distinct + " interns/s="
+                    + (long) throughput() + " violations=" + violations + " " + samples + " table before: " + before
+                    + ", after: " + after;
+        }
+    }
+
+    /**
+     * Runs one stress phase: {@code threads} threads each intern
+     * {@code internsPerThread} strings drawn at random from {@code keys}
+     * distinct keys, so most keys are interned by several threads.
+     */
+    Phase stress(int threads, int keys, int internsPerThread) throws InterruptedException {
+        String prefix = "intern-stress-" + PHASES.incrementAndGet() + "-" + System.nanoTime() + "-";
+        AtomicReferenceArray<String> canonical = new AtomicReferenceArray<>(keys);
+        Phase phase = new Phase();
+        phase.threads = threads;
+        phase.interns = (long) threads * internsPerThread;
+        phase.before = TableStats.read();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                StringBuilder sb = new StringBuilder(prefix);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < internsPerThread; i++) {
+                    int k = random.nextInt(keys);
+                    sb.setLength(prefix.length());
+                    String key = sb.append(k).toString(); // A fresh instance every time
+                    String interned = key.intern();
+                    if (!interned.equals(key)) {
+                        phase.violation("intern of " + key + " returned " + interned);
+                    }
+                    String first = canonical.get(k);
+                    if (first == null && canonical.compareAndSet(k, null, interned)) {
+                        continue;
+                    }
+                    if (canonical.get(k) != interned) {
+                        phase.violation("two canonical instances of " + key);
+                    }
+                }
+            }, "intern-stress-" + t);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        phase.nanos = System.nanoTime() - begin;
+        for (int k = 0; k < keys; k++) {
+            String s = canonical.get(k);
+            if (s != null) {
+                phase.distinct++;
+                if (new String(s).intern() != s) {
+                    phase.violation("canonical instance of " + s + " was replaced");
+                }
+            }
+        }
+        phase.after = TableStats.read();
+        return phase;
+    }
+
+    /**
+     * Test oracle for checking that concurrent intern() calls on equal strings
+     * from many threads always return one canonical instance.
+     *
+     * @param threads          the number of interning threads
+     * @param keys             the number of distinct strings
+     * @param internsPerThread intern calls per thread
+     * @param report           receives the phase summary, may be null
+     * @return true if every key had exactly one canonical instance across all
+     *         threads, false otherwise
+     */
+    boolean checkConcurrentInternCanonical(int threads, int keys, int internsPerThread, List<String> report)
+            throws InterruptedException {
+        Phase phase = stress(threads, keys, internsPerThread);
+        if (report != null) {
+            report.add(phase.toString());
+        }
+        return phase.violations.get() == 0;
+    }
+
+    /**
+     * Test oracle for checking that intern() throughput scales with the thread
+     * count. Efficiency at {@code t} threads is the throughput divided by the
+     * single-thread throughput times {@code min(t, cores)}, so the oracle does
+     * not demand more parallelism than the machine has.
+     *
+     * @param threadCounts     thread counts to measure, the first one being 1
+     * @param keys             distinct strings per phase
+     * @param internsPerThread intern calls per thread
+     * @param minEfficiency    the lowest tolerated efficiency, e.g. 0.5
+     * @param report           receives one line per phase, may be null
+     * @return true if every phase kept canonical identity and reached the
+     *         efficiency, false otherwise
+     */
+    boolean checkInternScaling(int[] threadCounts, int keys, int internsPerThread, double minEfficiency,
+            List<String> report) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        stress(threadCounts[0], keys, internsPerThread); // Warmup, so the JIT does not favour later phases
+        double single = 0;
+        boolean ok = true;
+        for (int threads : threadCounts) {
+            Phase phase = stress(threads, keys, internsPerThread);
+            if (single == 0) {
+                single = phase.throughput() / threads;
+            }
+            double efficiency = phase.throughput() / (single * Math.min(threads, cores));
+            if (report != null) {
+                report.add(phase + " efficiency=" + efficiency);
+            }
+            ok &= phase.violations.get() == 0 && efficiency >= minEfficiency;
+        }
+        return ok;
+    }
+
+}
@@ -115,12 +115,7 @@ public class ListOracle {
         if (array.length != list.size()) {
             return false; // Fail if the array size does not match the list size
         }
-        for (int i = 0; i < array.length; i++) {
-            if (!Objects.equals(array[i], list.get(i))) {
-                return false; // Fail if any element does not match
-            }
-        }
-        return true; // Pass if all elements match and are in order
+        return matchesInOrder(list, array, array.length); // Pass if all elements match and are in order
     }
 
     /**
@@ -180,12 +175,34 @@ public class ListOracle {
         if (result.length != list.size()) {
             return false; // Fail if the array size does not match the list size
         }
-        for (int i = 0; i < result.length; i++) {
-            if (!Objects.equals(result[i], list.get(i))) {
-                return false; // Fail if any element does not match
+        return matchesInOrder(list, result, result.length); // Pass if all elements match and are in order
+    }
+
+    /**
+     * Compares the first {@code length} array elements with the list in one bulk
+     * Arrays.mismatch call. The list side is copied into a per-thread pooled
+     * buffer through a single iteration, so sequential lists are not walked once
+     * per get(i).
+     *
+     * @param list   the list providing the expected elements
+     * @param array  the array to be checked
+     * @param length the number of elements to compare
+     * @return true if the array holds the list elements in order, false otherwise
+     */
+    boolean matchesInOrder(List<?> list, Object[] array, int length) {
+        Object[] expected = OracleBuffers.objects(length);
+        try {
+            int i = 0;
+            for (Object item : list) {
+                if (i == length) {
+                    return false; // The list has more elements than expected
+                }
+                expected[i++] = item;
             }
+            return i == length && Arrays.mismatch(array, 0, length, expected, 0, length) == -1;
+        } finally {
+            OracleBuffers.release(expected, length); // Do not keep elements reachable from the pool
         }
-        return true; // Pass if all elements match and are in order
     }
 
     /**
@@ -1660,4 +1677,137 @@ public class ListOracle {
         }
     }
 
+    /**
+     * Test oracle for checking if size() is capped at Integer.MAX_VALUE when the
+     * list holds more elements than that, e.g. a
+     * {@code VirtualCollections.IndexedList}.
+     *
+     * @param list         the list to be checked
+     * @param elementCount the actual number of elements in the list
+     * @return true if size() returns the element count, or Integer.MAX_VALUE if
+     *         the count exceeds it, false otherwise
+     */
+    boolean checkSizeCap(List<?> list, long elementCount) {
+        return list.size() == Math.min(elementCount, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Test oracle for checking if the iterator visits every element, including
+     * those beyond index Integer.MAX_VALUE.
+     *
+     * @param list         the list to be checked
+     * @param elementCount the actual number of elements in the list
+     * @return true if the iterator returns exactly elementCount elements, false
+     *         otherwise
+     */
+    boolean checkIteratorCount(List<?> list, long elementCount) {
+        Iterator<?> iterator = list.iterator();
+        long visited = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            visited++;
+        }
+        return visited == elementCount;
+    }
+
+    /**
+     * Test oracle for checking if a SIZED spliterator reports the real element
+     * count rather than the capped size().
+     *
+     * @param list         the list to be checked
+     * @param elementCount the actual number of elements in the list
+     * @return true if the spliterator is SIZED and its exact size equals
+     *         elementCount, false otherwise
+     */
+    boolean checkSpliteratorExactSize(List<?> list, long elementCount) {
+        Spliterator<?> spliterator = list.spliterator();
+        return spliterator.getExactSizeIfKnown() == elementCount;
+    }
+
+    /**
+     * Test oracle for checking if toArray() refuses to build an array that cannot
+     * hold all elements instead of silently truncating.
+     *
+     * @param list         the list to be checked
+     * @param elementCount the actual number of elements in the list
+     * @return true if an array holding every element is returned, or
+     *         OutOfMemoryError is thrown when no array can, false otherwise
+     */
+    boolean checkToArrayCapacity(List<?> list, long elementCount) {
+        try {
+            return list.toArray().length == elementCount;
+        } catch (OutOfMemoryError e) {
+            return elementCount > Integer.MAX_VALUE - 8; // Only acceptable beyond the maximum array size
+        }
+    }
+
+    /**
+     * Test oracle for checking the iterator, listIterator, listIterator(index),
+     * spliterator, toArray and (for RandomAccess lists) indexed get paths in a
+     * single pass, advancing all cursors in lockstep. Verifies the contracts of
+     * checkIteratorSequence, checkToArraySequence,
+     * checkIteratorFunctionalityAndOrder, checkIteratorStartPositionAndSequence
+     * and checkSpliteratorCharacteristics together while reading each element
+     * once per path instead of once per oracle. get(int) is skipped on
+     * sequential lists, where it would make the pass quadratic.
+     *
+     * @param list  the list to be checked
+     * @param index the starting index for listIterator(index)
+     * @return true if every path yields the same elements in the same order and
+     *         the spliterator reports SIZED, ORDERED and SUBSIZED with the right
+     *         size, false otherwise
+     */
+    <E> boolean checkIterationPathsFused(List<E> list, int index) {
+        try {
+            int size = list.size();
+            boolean indexed = list instanceof RandomAccess;
+            Object[] array = list.toArray();
+            Iterator<E> iterator = list.iterator();
+            ListIterator<E> listIterator = list.listIterator();
+            ListIterator<E> fromIndex = list.listIterator(index);
+            Spliterator<E> spliterator = list.spliterator();
+            if (array.length != size || !spliterator.hasCharacteristics(Spliterator.SIZED)
+                    || !spliterator.hasCharacteristics(Spliterator.ORDERED)
+                    || !spliterator.hasCharacteristics(Spliterator.SUBSIZED) || spliterator.estimateSize() != size) {
+                return false; // Sizes or characteristics are wrong before any traversal
+            }
+            if (fromIndex.nextIndex() != index || fromIndex.hasPrevious() != (index > 0)) {
+                return false; // listIterator(index) does not start at index
+            }
+            E beforeIndex = null;
+            if (index > 0) {
+                beforeIndex = fromIndex.previous(); // Checked against the pass at index - 1
+                if (!Objects.equals(fromIndex.next(), beforeIndex)) {
+                    return false; // next() does not undo previous()
+                }
+            }
+            Object[] advanced = new Object[1];
+            for (int i = 0; i < size; i++) {
+                if (!iterator.hasNext() || !listIterator.hasNext()) {
+                    return false; // A cursor ran out of elements early
+                }
+                E expected = iterator.next();
+                if (!Objects.equals(listIterator.next(), expected) || !Objects.equals(array[i], expected)) {
+                    return false; // listIterator or toArray disagree with iterator
+                }
+                if (indexed && !Objects.equals(list.get(i), expected)) {
+                    return false; // get(i) disagrees with iterator
+                }
+                if (!spliterator.tryAdvance(e -> advanced[0] = e) || !Objects.equals(advanced[0], expected)) {
+                    return false; // spliterator disagrees with iterator
+                }
+                if (i == index - 1 && !Objects.equals(beforeIndex, expected)) {
+                    return false; // previous() does not return the element before the index
+                }
+                if (i >= index && (!fromIndex.hasNext() || !Objects.equals(fromIndex.next(), expected))) {
+                    return false; // listIterator(index) does not follow the list from index
+                }
+            }
+            return !iterator.hasNext() && !listIterator.hasNext() && !fromIndex.hasNext()
+                    && !spliterator.tryAdvance(e -> advanced[0] = e); // No cursor may yield extra elements
+        } catch (IndexOutOfBoundsException ex) {
+            return false; // Properly handle if the index is out of bounds
+        }
+    }
+
 }
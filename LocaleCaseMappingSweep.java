@@ -0,0 +1,215 @@
+public class LocaleCaseMappingSweep {
+    /*
+     * Checks toLowerCase(Locale) and toUpperCase(Locale) for every available
+     * locale on the one-code-point string of every code point. Only the
+     * language of a locale selects case-mapping rules, and only Turkish,
+     * Azerbaijani and Lithuanian have rules of their own, so one expected table
+     * is built per rule set (root, tr, az, lt) and shared read-only by all
+     * workers; every other locale must map exactly like Locale.ROOT.
+     *
+     * A table holds the mappings that differ from Character's simple one-to-one
+     * mapping: the length-changing mappings of the root rules (such as U+00DF to
+     * "SS"), taken from Locale.ROOT once and checked for consistency, and the
+     * language-specific mappings below, which are written out by hand.
+     */
+    static final int CODE_POINTS = Character.MAX_CODE_POINT + 1;
+    static final int BLOCK = 4096;
+    static final int MAX_SAMPLES = 20;
+
+    static class MappingTable {
+        final String language;
+        final BitSet special = new BitSet(); // Code points with any entry below
+        final Map<Integer, String> lower = new HashMap<>();
+        final Map<Integer, String> upper = new HashMap<>();
+
+        MappingTable(String language, MappingTable base) {
+            this.language = language;
+            if (base != null) {
+                special.or(base.special);
+                lower.putAll(base.lower);
+                upper.putAll(base.upper);
+            }
+        }
+
+        void lower(int cp, String mapping) {
+            special.set(cp);
+            lower.put(cp, mapping);
+        }
+
+        void upper(int cp, String mapping) {
+            special.set(cp);
+            upper.put(cp, mapping);
+        }
+
+        boolean matches(String result, int cp, boolean toLower) {
+            if (special.get(cp)) {
+                String mapping = (toLower ? lower : upper).get(cp);
+                if (mapping != null) {
+                    return result.equals(mapping);
+                }
+            }
+            int simple = toLower ? Character.toLowerCase(cp) : Character.toUpperCase(cp);
+            return result.length() == Character.charCount(simple) && result.codePointAt(0) == simple;
+        }
+
+        String expected(int cp, boolean toLower) {
+            String mapping = (toLower ? lower : upper).get(cp);
+            return mapping != null ? mapping
+                    : new String(Character.toChars(toLower ? Character.toLowerCase(cp) : Character.toUpperCase(cp)));
+        }
+    }
+
+    final int workers;
+    final MappingTable root;
+    final MappingTable turkish;
+    final MappingTable azeri;
+    final MappingTable lithuanian;
+    final LongAdder violations = new LongAdder();
+    final Map<String, LongAdder> failuresByLocale = new ConcurrentHashMap<>();
+    final Queue<String> samples = new ConcurrentLinkedQueue<>();
+
+    LocaleCaseMappingSweep(int workers) {
+        this.workers = workers;
+        root = rootTable();
+        turkish = new MappingTable("tr", root);
+        azeri = new MappingTable("az", root);
+        for (MappingTable t : Arrays.asList(turkish, azeri)) {
+            t.lower('I', "\u0131"); // Dotless i
+            t.lower('\u0130', "i"); // Dotted capital I loses its dot rather than gaining a combining one
+            t.upper('i', "\u0130");
+        }
+        lithuanian = new MappingTable("lt", root);
+        lithuanian.lower('\u00CC', "i\u0307\u0300"); // The dot above is kept under accents
+        lithuanian.lower('\u00CD', "i\u0307\u0301");
+        lithuanian.lower('\u0128', "i\u0307\u0303");
+    }
+
+    // Records the root mappings that are not Character's simple mapping. Those
+    // must change the length: a same-length difference, or an upper case mapping
+    // that shrinks the string (see StringOracle.checkResultingStringLength), or
+    // an expansion that is not stable under a second mapping, is a violation.
+    MappingTable rootTable() {
+        MappingTable table = new MappingTable("", null);
+        for (int cp = 0; cp < CODE_POINTS; cp++) {
+            String s = new String(Character.toChars(cp));
+            for (boolean toLower : new boolean[] { true, false }) {
+                String result = toLower ? s.toLowerCase(Locale.ROOT) : s.toUpperCase(Locale.ROOT);
+                if (table.matches(result, cp, toLower)) {
+                    continue;
+                }
+                String again = toLower ? result.toLowerCase(Locale.ROOT) : result.toUpperCase(Locale.ROOT);
+                if (result.length() == s.length() || !toLower && result.length() < s.length()
+                        || !again.equals(result)) {
+                    violation(Locale.ROOT, cp, toLower, result, table.expected(cp, toLower));
+                }
+                if (toLower) {
+                    table.lower(cp, result);
+                } else {
+                    table.upper(cp, result);
+                }
+            }
+        }
+        return table;
+    }
+
+    MappingTable tableFor(Locale locale) {
+        switch (locale.getLanguage()) {
+        case "tr":
+            return turkish;
+        case "az":
+            return azeri;
+        case "lt":
+            return lithuanian;
+        default:
+            return root;
+        }
+    }
+
+    void violation(Locale locale, int cp, boolean toLower, String result, String expected) {
+        violations.increment();
+        failuresByLocale.computeIfAbsent(locale.toLanguageTag(), l -> new LongAdder()).increment();
+        if (samples.size() < MAX_SAMPLES) {
+            samples.add(String.format("%s U+%04X %s=%s expected %s", locale.toLanguageTag(), cp,
+                    toLower ? "toLowerCase" : "toUpperCase", codePoints(result), codePoints(expected)));
+        }
+    }
+
+    static String codePoints(String s) {
+        StringBuilder sb = new StringBuilder();
+        s.codePoints().forEach(c -> sb.append(sb.length() == 0 ? "" : " ").append(String.format("U+%04X", c)));
+        return sb.toString();
+    }
+
+    /**
+     * Checks every locale on the code points {@code [from, to)}. The strings of
+     * the block are built once and reused for all locales.
+     */
+    void sweepBlock(Locale[] locales, int from, int to) {
+        String[] strings = new String[to - from];
+        for (int cp = from; cp < to; cp++) {
+            strings[cp - from] = new String(Character.toChars(cp));
+        }
+        for (Locale locale : locales) {
+            MappingTable table = tableFor(locale);
+            for (int cp = from; cp < to; cp++) {
+                String s = strings[cp - from];
+                String lower = s.toLowerCase(locale);
+                if (!table.matches(lower, cp, true)) {
+                    violation(locale, cp, true, lower, table.expected(cp, true));
+                }
+                String upper = s.toUpperCase(locale);
+                if (!table.matches(upper, cp, false)) {
+                    violation(locale, cp, false, upper, table.expected(cp, false));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test oracle for checking the case mappings of the given locales on every
+     * code point against the expected table of their language.
+     *
+     * @param locales the locales to sweep
+     * @param report  receives failure counts per locale and sample violations,
+     *                may be null
+     * @return true if every locale mapped every code point as expected, false
+     *         otherwise
+     */
+    boolean checkCaseMappings(Locale[] locales, List<String> report) throws InterruptedException {
+        AtomicInteger nextBlock = new AtomicInteger();
+        int blocks = (CODE_POINTS + BLOCK - 1) / BLOCK;
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                pending.add(pool.submit(() -> {
+                    for (int b; (b = nextBlock.getAndIncrement()) < blocks;) {
+                        sweepBlock(locales, b * BLOCK, Math.min(CODE_POINTS, (b + 1) * BLOCK));
+                    }
+                }));
+            }
+            for (Future<?> f : pending) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sweep worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        if (report != null) {
+            report.add("locales=" + locales.length + " codePoints=" + CODE_POINTS + " violations=" + violations.sum()
+                    + " byLocale=" + failuresByLocale);
+            report.addAll(samples);
+        }
+        return violations.sum() == 0;
+    }
+
+    /**
+     * Test oracle for checking all available locales, see
+     * {@link #checkCaseMappings(Locale[], List)}.
+     */
+    boolean checkAllLocaleCaseMappings(List<String> report) throws InterruptedException {
+        return checkCaseMappings(Locale.getAvailableLocales(), report);
+    }
+
+}
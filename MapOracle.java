@@ -934,4 +934,12 @@ public class MapOracle {
         }
     }
 
+    boolean checkSizeCap(Map map, long mappingCount) {
+        return map.size() == Math.min(mappingCount, Integer.MAX_VALUE); // size should be capped at Integer.MAX_VALUE
+    }
+
+    boolean checkEntrySetSpliteratorExactSize(Map map, long mappingCount) {
+        return map.entrySet().spliterator().getExactSizeIfKnown() == mappingCount; // real count, not the capped size
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+public class NeedleAutomaton {
+    /*
+     * Aho-Corasick automaton over chars. Built once for a set of needles, it
+     * reports every occurrence of every needle in one left-to-right scan of a
+     * haystack. Empty needles are not entered into the trie; their indexes are
+     * defined by String.indexOf/lastIndexOf and computed directly.
+     */
+    final String[] needles;
+    final int maxLength;
+
+    // Trie in parallel arrays; node 0 is the root
+    char[][] labels; // outgoing edge chars per node, unsorted
+    int[][] targets; // child node per edge
+    int[] fail; // longest proper suffix that is also a trie path
+    int[] dictionary; // nearest node on the fail chain with outputs, -1 if none
+    int[][] outputs; // needle indexes ending at this node
+    int nodes;
+
+    NeedleAutomaton(String... needles) {
+        this.needles = needles.clone();
+        int total = 1, longest = 0;
+        for (String needle : needles) {
+            total += needle.length();
+            longest = Math.max(longest, needle.length());
+        }
+        maxLength = longest;
+        labels = new char[total][];
+        targets = new int[total][];
+        fail = new int[total];
+        dictionary = new int[total];
+        outputs = new int[total][];
+        nodes = 1;
+        labels[0] = new char[0];
+        targets[0] = new int[0];
+        outputs[0] = new int[0];
+        for (int i = 0; i < needles.length; i++) {
+            if (needles[i].isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int j = 0; j < needles[i].length(); j++) {
+                node = childOrAdd(node, needles[i].charAt(j));
+            }
+            outputs[node] = Arrays.copyOf(outputs[node], outputs[node].length + 1);
+            outputs[node][outputs[node].length - 1] = i;
+        }
+        link();
+    }
+
+    int child(int node, char c) {
+        char[] l = labels[node];
+        for (int k = 0; k < l.length; k++) {
+            if (l[k] == c) {
+                return targets[node][k];
+            }
+        }
+        return -1;
+    }
+
+    int childOrAdd(int node, char c) {
+        int existing = child(node, c);
+        if (existing >= 0) {
+            return existing;
+        }
+        int created = nodes++;
+        labels[created] = new char[0];
+        targets[created] = new int[0];
+        outputs[created] = new int[0];
+        int k = labels[node].length;
+        labels[node] = Arrays.copyOf(labels[node], k + 1);
+        targets[node] = Arrays.copyOf(targets[node], k + 1);
+        labels[node][k] = c;
+        targets[node][k] = created;
+        return created;
+    }
+
+    // Breadth-first, so a node's fail target is always linked before the node
+    void link() {
+        int[] queue = new int[nodes];
+        int head = 0, tail = 0;
+        dictionary[0] = -1;
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            dictionary[child] = -1;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int k = 0; k < labels[node].length; k++) {
+                char c = labels[node][k];
+                int child = targets[node][k];
+                int f = fail[node];
+                while (f != 0 && child(f, c) < 0) {
+                    f = fail[f];
+                }
+                int next = child(f, c);
+                fail[child] = next >= 0 ? next : 0;
+                dictionary[child] = outputs[fail[child]].length > 0 ? fail[child] : dictionary[fail[child]];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    int step(int node, char c) {
+        while (true) {
+            int next = child(node, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (node == 0) {
+                return 0;
+            }
+            node = fail[node];
+        }
+    }
+
+    /**
+     * Reference for {@code haystack.indexOf(needle, fromIndex)} for every needle
+     * at once: matches starting before fromIndex are never seen because the scan
+     * itself starts there.
+     *
+     * @return the first occurrence of each needle at or after fromIndex, -1 if
+     *         none
+     */
+    int[] firstOccurrences(String haystack, int fromIndex) {
+        int n = haystack.length();
+        int start = Math.max(fromIndex, 0);
+        int[] first = new int[needles.length];
+        Arrays.fill(first, -1);
+        int remaining = 0;
+        for (int i = 0; i < needles.length; i++) {
+            if (needles[i].isEmpty()) {
+                first[i] = Math.min(start, n);
+            } else {
+                remaining++;
+            }
+        }
+        int node = 0;
+        for (int pos = start; pos < n && remaining > 0; pos++) {
+            node = step(node, haystack.charAt(pos));
+            for (int out = outputs[node].length > 0 ? node : dictionary[node]; out > 0; out = dictionary[out]) {
+                for (int needle : outputs[out]) {
+                    if (first[needle] < 0) {
+                        first[needle] = pos - needles[needle].length() + 1;
+                        remaining--;
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Reference for {@code haystack.lastIndexOf(needle, fromIndex)} for every
+     * needle at once; pass Integer.MAX_VALUE for plain lastIndexOf. Only the
+     * prefix that can hold a match starting at or before fromIndex is scanned.
+     *
+     * @return the last occurrence of each needle starting at or before
+     *         fromIndex, -1 if none
+     */
+    int[] lastOccurrences(String haystack, int fromIndex) {
+        int n = haystack.length();
+        int[] last = new int[needles.length];
+        Arrays.fill(last, -1);
+        if (fromIndex < 0) {
+            return last;
+        }
+        for (int i = 0; i < needles.length; i++) {
+            if (needles[i].isEmpty()) {
+                last[i] = Math.min(fromIndex, n);
+            }
+        }
+        int end = (int) Math.min(n, (long) fromIndex + maxLength);
+        int node = 0;
+        for (int pos = 0; pos < end; pos++) {
+            node = step(node, haystack.charAt(pos));
+            for (int out = outputs[node].length > 0 ? node : dictionary[node]; out > 0; out = dictionary[out]) {
+                for (int needle : outputs[out]) {
+                    int matchStart = pos - needles[needle].length() + 1;
+                    if (matchStart <= fromIndex) {
+                        last[needle] = matchStart;
+                    }
+                }
+            }
+        }
+        return last;
+    }
+
+}
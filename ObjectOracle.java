@@ -88,15 +88,13 @@ public class ObjectOracle {
         return clone.equals(x);
     }
 
-    // Oracle for checking the independency of the clone
+    // Oracle for checking the independency of the clone: the clone graph must have
+    // the same shape as the original and share only immutable objects with it,
+    // so no mutation through the clone can reach the original
     boolean checkCloneIndependency(Object x) throws CloneNotSupportedException {
-        Object original = x.clone();
-        Object clone = original.clone();
-        // Assuming clone modifies a mutable field as a simple example
-        if (original instanceof CloneExample) { // CloneExample is a hypothetical class with mutable fields
-            ((CloneExample) clone).setMutableField(new Object());
-        }
-        return !clone.equals(original);
+        Object clone = x.clone();
+        CloneGraphComparer.Comparison comparison = new CloneGraphComparer().compare(x, clone, Integer.MAX_VALUE);
+        return clone != x && comparison.isStructurallyEqual() && comparison.mutableShared.isEmpty();
     }
 
     // Oracle for checking CloneNotSupportedException
@@ -109,12 +107,17 @@ public class ObjectOracle {
         }
     }
 
-    // Oracle for checking shallow copy
+    // Oracle for checking shallow copy: every field of the clone holds the same
+    // value, and every reference field the same object, as in the original
     boolean checkShallowCopy(Object x) throws CloneNotSupportedException {
         Object clone = x.clone();
-        // Hypothetical fields accessed via reflection or known getters
-        // This example assumes a field 'internalField' for illustration
-        return ((CloneExample) clone).getInternalField() == ((CloneExample) x).getInternalField();
+        CloneGraphComparer.Comparison comparison = new CloneGraphComparer().compare(x, clone, 1);
+        for (long[] sharedAndCopied : comparison.fields().values()) {
+            if (sharedAndCopied[1] > 0) {
+                return false; // A reference field was copied rather than shared
+            }
+        }
+        return clone != x && comparison.isStructurallyEqual();
     }
 
     // Oracle for checking if the class name is included in the toString output
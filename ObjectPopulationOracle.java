@@ -0,0 +1,195 @@
+public class ObjectPopulationOracle {
+    // Disjoint sets over population indexes, with path halving and union by size
+    static class UnionFind {
+        final int[] parent;
+        final int[] size;
+
+        UnionFind(int n) {
+            parent = new int[n];
+            size = new int[n];
+            for (int i = 0; i < n; i++) {
+                parent[i] = i;
+                size[i] = 1;
+            }
+        }
+
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        void union(int a, int b) {
+            int ra = find(a), rb = find(b);
+            if (ra == rb) {
+                return;
+            }
+            if (size[ra] < size[rb]) {
+                int t = ra;
+                ra = rb;
+                rb = t;
+            }
+            parent[rb] = ra;
+            size[ra] += size[rb];
+        }
+    }
+
+    // Oracle for checking reflexivity, null comparison and hashCode stability of
+    // every object in the population, in O(N)
+    boolean checkPopulationBasics(List<?> population, int[] hashes, List<String> violations) {
+        boolean ok = true;
+        for (int i = 0; i < population.size(); i++) {
+            Object x = population.get(i);
+            if (!x.equals(x)) {
+                ok = report(violations, "reflexivity: #" + i + " does not equal itself");
+            }
+            if (x.equals(null)) {
+                ok = report(violations, "null comparison: #" + i + " equals null");
+            }
+            if (x.hashCode() != hashes[i]) {
+                ok = report(violations, "hashCode consistency: #" + i + " changed its hash code");
+            }
+        }
+        return ok;
+    }
+
+    // Oracle for checking symmetry, transitivity and equals/hashCode consistency
+    // over a whole population. Symmetry and transitivity are checked within hash
+    // buckets: each object is compared (both ways) to the representative and the
+    // latest member of every equivalence class in its bucket, so a member that
+    // equals one but not the other exposes a violating triple. This keeps the
+    // work near-linear unless a single bucket holds many distinct classes.
+    // Equal objects with different hash codes sit in different buckets by
+    // definition, so they are found through equalityKey instead: a canonical
+    // form that equal objects share (e.g. the lower-cased name of a
+    // case-insensitive identifier). Every object is compared both ways to the
+    // first object with its key, and must equal it and share its hash code.
+    boolean checkPopulationEquivalence(List<?> population, Function<Object, ?> equalityKey,
+            List<String> violations) {
+        int n = population.size();
+        int[] hashes = new int[n];
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = population.get(i).hashCode();
+            order[i] = ((long) hashes[i] << 32) | i; // Sorting by hash then index, without boxing
+        }
+        Arrays.sort(order);
+        boolean ok = checkPopulationBasics(population, hashes, violations);
+        List<int[]> bucketClasses = new ArrayList<>(); // { representative, latest member }
+        for (int start = 0; start < n;) {
+            int end = start;
+            while (end < n && (int) (order[end] >>> 32) == (int) (order[start] >>> 32)) {
+                end++;
+            }
+            bucketClasses.clear();
+            for (int k = start; k < end; k++) {
+                int x = (int) order[k];
+                int[] joined = null;
+                for (int[] c : bucketClasses) {
+                    int toRepresentative = compareBothWays(population, x, c[0], violations);
+                    int toLatest = c[1] == c[0] ? toRepresentative : compareBothWays(population, x, c[1], violations);
+                    if (toRepresentative < 0 || toLatest < 0) {
+                        ok = false;
+                    }
+                    boolean equalsRepresentative = toRepresentative > 0, equalsLatest = toLatest > 0;
+                    if (equalsRepresentative && !equalsLatest) {
+                        ok = report(violations, "transitivity: #" + c[1] + " = #" + c[0] + " = #" + x + " but #"
+                                + c[1] + " != #" + x);
+                    } else if (!equalsRepresentative && equalsLatest) {
+                        ok = report(violations, "transitivity: #" + x + " = #" + c[1] + " = #" + c[0] + " but #" + x
+                                + " != #" + c[0]);
+                    }
+                    if (equalsRepresentative) {
+                        if (joined == null) {
+                            joined = c;
+                        } else {
+                            // x equals two representatives that were not equal to each other
+                            ok = report(violations, "transitivity: #" + joined[0] + " = #" + x + " = #" + c[0]
+                                    + " but #" + joined[0] + " != #" + c[0]);
+                        }
+                    }
+                }
+                if (joined == null) {
+                    bucketClasses.add(new int[] { x, x });
+                } else {
+                    joined[1] = x;
+                }
+            }
+            start = end;
+        }
+        return checkEqualityKeys(population, hashes, equalityKey, violations) && ok;
+    }
+
+    // The cross-bucket half of checkPopulationEquivalence, in O(N): objects
+    // sharing an equality key must be equal and have equal hash codes
+    boolean checkEqualityKeys(List<?> population, int[] hashes, Function<Object, ?> equalityKey,
+            List<String> violations) {
+        boolean ok = true;
+        Map<Object, Integer> firstWithKey = new HashMap<>();
+        for (int i = 0; i < population.size(); i++) {
+            Integer first = firstWithKey.putIfAbsent(equalityKey.apply(population.get(i)), i);
+            if (first == null) {
+                continue;
+            }
+            int equal = compareBothWays(population, first, i, violations);
+            if (equal == 0) {
+                ok = report(violations, "equality key: #" + first + " and #" + i + " share a key but are not equal");
+            } else if (equal < 0) {
+                ok = false;
+            } else if (hashes[first] != hashes[i]) {
+                ok = report(violations, "hashCode: #" + first + " equals #" + i + " but their hash codes differ ("
+                        + hashes[first] + " vs " + hashes[i] + ")");
+            }
+        }
+        return ok;
+    }
+
+    // Compares two population members both ways: 1 if each equals the other, 0
+    // if neither does, -1 (reported as a symmetry violation) otherwise
+    int compareBothWays(List<?> population, int a, int b, List<String> violations) {
+        boolean ab = population.get(a).equals(population.get(b)), ba = population.get(b).equals(population.get(a));
+        if (ab != ba) {
+            report(violations, "symmetry: #" + a + ".equals(#" + b + ") is " + ab + " but #" + b + ".equals(#" + a
+                    + ") is " + ba);
+            return -1;
+        }
+        return ab ? 1 : 0;
+    }
+
+    // Groups the population into equivalence classes, e.g. for reporting class
+    // sizes: each object joins the first equal representative in its hash
+    // bucket. Only meaningful once checkPopulationEquivalence has passed, since
+    // without transitivity the grouping depends on the order
+    Map<Integer, List<Integer>> equivalenceClasses(List<?> population) {
+        int n = population.size();
+        UnionFind classes = new UnionFind(n);
+        Map<Integer, List<Integer>> byHash = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            List<Integer> bucket = byHash.computeIfAbsent(population.get(i).hashCode(), h -> new ArrayList<>());
+            for (int r : bucket) {
+                if (population.get(r).equals(population.get(i))) {
+                    classes.union(r, i);
+                    break;
+                }
+            }
+            if (classes.find(i) == i) {
+                bucket.add(i); // New representative
+            }
+        }
+        Map<Integer, List<Integer>> result = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            result.computeIfAbsent(classes.find(i), r -> new ArrayList<>()).add(i);
+        }
+        return result;
+    }
+
+    boolean report(List<String> violations, String violation) {
+        if (violations != null) {
+            violations.add(violation);
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,49 @@
+public class OracleBuffers {
+    /*
+     * Per-thread scratch arrays for the expected side of array-copy oracles, so
+     * verifying large inputs does not allocate a fresh array per call. Buffers
+     * only grow; a buffer handed out is valid until the same thread asks for
+     * another one of the same type.
+     */
+    static final ThreadLocal<char[][]> CHARS = ThreadLocal.withInitial(() -> new char[][] { new char[0] });
+    static final ThreadLocal<byte[][]> BYTES = ThreadLocal.withInitial(() -> new byte[][] { new byte[0] });
+    static final ThreadLocal<Object[][]> OBJECTS = ThreadLocal.withInitial(() -> new Object[][] { new Object[0] });
+
+    static char[] chars(int minLength) {
+        char[][] holder = CHARS.get();
+        if (holder[0].length < minLength) {
+            holder[0] = new char[grow(holder[0].length, minLength)];
+        }
+        return holder[0];
+    }
+
+    static byte[] bytes(int minLength) {
+        byte[][] holder = BYTES.get();
+        if (holder[0].length < minLength) {
+            holder[0] = new byte[grow(holder[0].length, minLength)];
+        }
+        return holder[0];
+    }
+
+    /**
+     * Callers must {@link #release} the used range so the pool does not keep
+     * elements reachable.
+     */
+    static Object[] objects(int minLength) {
+        Object[][] holder = OBJECTS.get();
+        if (holder[0].length < minLength) {
+            holder[0] = new Object[grow(holder[0].length, minLength)];
+        }
+        return holder[0];
+    }
+
+    static void release(Object[] buffer, int length) {
+        Arrays.fill(buffer, 0, length, null);
+    }
+
+    static int grow(int current, int minLength) {
+        int doubled = current << 1;
+        return doubled >= minLength && doubled > 0 ? Math.min(doubled, Integer.MAX_VALUE - 8) : minLength;
+    }
+
+}
@@ -0,0 +1,59 @@
+public class OracleEvents {
+    /**
+     * One oracle call. Only calls slower than the threshold are recorded; it can
+     * be raised or lowered per recording with
+     * {@code oracles.OracleExecution#threshold=<duration>} in the JFR settings.
+     */
+    @Name("oracles.OracleExecution")
+    @Label("Oracle Execution")
+    @Category("Oracles")
+    @Description("A single oracle call and its outcome")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class Execution extends Event {
+        @Label("Oracle Class")
+        String oracleClass;
+
+        @Label("Oracle Method")
+        String oracleMethod;
+
+        @Label("Input Size")
+        @Description("Number of elements or chars in the input, -1 if unknown")
+        long inputSize;
+
+        @Label("Outcome")
+        @Description("pass, fail or thrown")
+        String outcome;
+
+        void set(String oracle, long size, String result) {
+            int dot = oracle.lastIndexOf('.');
+            oracleClass = dot < 0 ? "" : oracle.substring(0, dot);
+            oracleMethod = oracle.substring(dot + 1);
+            inputSize = size;
+            outcome = result;
+        }
+    }
+
+    /**
+     * A group of oracle calls sharing one input, such as one round of
+     * {@code DifferentialOracle}.
+     */
+    @Name("oracles.OracleBatch")
+    @Label("Oracle Batch")
+    @Category("Oracles")
+    @Description("A batch of oracle calls over one input")
+    @Threshold("10 ms")
+    @StackTrace(false)
+    public static class Batch extends Event {
+        @Label("Batch")
+        String batch;
+
+        @Label("Calls")
+        int calls;
+
+        @Label("Failures")
+        @Description("Calls that failed, threw or diverged")
+        int failures;
+    }
+
+}
@@ -0,0 +1,243 @@
+public class OracleMetrics implements OracleMetricsMXBean {
+    // Layout of the per-oracle counters, see Stats
+    static final int COUNT = 0;
+    static final int PASSED = 1;
+    static final int FAILED = 2;
+    static final int THROWN = 3;
+    static final int WALL_TOTAL = 4;
+    static final int CPU_TOTAL = 5;
+    static final int ALLOC_TOTAL = 6;
+    static final int BUCKETS = 64; // log2 buckets, enough for any long
+    static final int WALL_HISTOGRAM = 7;
+    static final int CPU_HISTOGRAM = WALL_HISTOGRAM + BUCKETS;
+    static final int ALLOC_HISTOGRAM = CPU_HISTOGRAM + BUCKETS;
+    static final int SLOTS = ALLOC_HISTOGRAM + BUCKETS;
+
+    static final OracleMetrics INSTANCE = new OracleMetrics();
+
+    static volatile boolean enabled = Boolean.getBoolean("oracle.metrics");
+
+    static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // Every recorder ever created, so snapshots see threads that already exited
+    static final Queue<Recorder> RECORDERS = new ConcurrentLinkedQueue<>();
+
+    static final ThreadLocal<Recorder> RECORDER = ThreadLocal.withInitial(() -> {
+        Recorder recorder = new Recorder();
+        RECORDERS.add(recorder);
+        return recorder;
+    });
+
+    /**
+     * Counters of one oracle on one thread. Only the owning thread writes, so
+     * updates are plain read-then-lazySet; snapshot readers may see a slightly
+     * stale value but never block the writer.
+     */
+    static class Stats {
+        final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+        void add(int slot, long delta) {
+            slots.lazySet(slot, slots.get(slot) + delta);
+        }
+
+        void record(int histogram, int total, long value) {
+            if (value < 0) {
+                return; // Not supported on this JVM
+            }
+            add(total, value);
+            add(histogram + bucket(value), 1);
+        }
+    }
+
+    static class Recorder {
+        final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Runs an oracle and, when metrics are enabled, records its wall time, CPU
+     * time, allocated bytes and outcome under the given name, e.g.
+     * {@code OracleMetrics.invoke("StringOracle.checkMalformedAndUnmappableHandling", () -> oracle.checkMalformedAndUnmappableHandling(s, cs))}.
+     *
+     * @param oracle the name the invocation is recorded under
+     * @param check  the oracle invocation
+     * @return the verdict of the oracle
+     */
+    static boolean invoke(String oracle, BooleanSupplier check) {
+        return invoke(oracle, -1, check);
+    }
+
+    /**
+     * Same as {@link #invoke(String, BooleanSupplier)}, and additionally emits an
+     * {@code OracleEvents.Execution} JFR event for calls above the recording's
+     * threshold.
+     *
+     * @param oracle    the name the invocation is recorded under
+     * @param inputSize the size of the input, -1 if unknown
+     * @param check     the oracle invocation
+     * @return the verdict of the oracle
+     */
+    static boolean invoke(String oracle, long inputSize, BooleanSupplier check) {
+        OracleEvents.Execution event = new OracleEvents.Execution();
+        event.begin();
+        String outcome = "thrown";
+        try {
+            boolean verdict = enabled ? measure(oracle, check) : check.getAsBoolean();
+            outcome = verdict ? "pass" : "fail";
+            return verdict;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.set(oracle, inputSize, outcome);
+                event.commit();
+            }
+        }
+    }
+
+    static boolean measure(String oracle, BooleanSupplier check) {
+        Stats stats = RECORDER.get().stats.computeIfAbsent(oracle, k -> new Stats());
+        long alloc = allocatedBytes();
+        long cpu = THREADS.getCurrentThreadCpuTime();
+        long wall = System.nanoTime();
+        int outcome = THROWN;
+        try {
+            boolean verdict = check.getAsBoolean();
+            outcome = verdict ? PASSED : FAILED;
+            return verdict;
+        } finally {
+            long wallEnd = System.nanoTime();
+            long cpuEnd = THREADS.getCurrentThreadCpuTime();
+            long allocEnd = allocatedBytes();
+            stats.add(COUNT, 1);
+            stats.add(outcome, 1);
+            stats.record(WALL_HISTOGRAM, WALL_TOTAL, wallEnd - wall);
+            stats.record(CPU_HISTOGRAM, CPU_TOTAL, cpu < 0 ? -1 : cpuEnd - cpu);
+            stats.record(ALLOC_HISTOGRAM, ALLOC_TOTAL, alloc < 0 ? -1 : allocEnd - alloc);
+        }
+    }
+
+    static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    static int bucket(long value) {
+        return 64 - Long.numberOfLeadingZeros(value) - (value == 0 ? 0 : 1);
+    }
+
+    /**
+     * Merges the per-thread counters of every oracle.
+     *
+     * @return oracle name to merged counters, laid out as in {@link Stats}
+     */
+    static Map<String, long[]> merge() {
+        Map<String, long[]> merged = new TreeMap<>();
+        for (Recorder recorder : RECORDERS) {
+            for (Map.Entry<String, Stats> e : recorder.stats.entrySet()) {
+                long[] into = merged.computeIfAbsent(e.getKey(), k -> new long[SLOTS]);
+                AtomicLongArray slots = e.getValue().slots;
+                for (int i = 0; i < SLOTS; i++) {
+                    into[i] += slots.get(i);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Approximates a percentile from a log2 histogram as the upper bound of the
+     * bucket it falls into.
+     */
+    static long percentile(long[] slots, int histogram, double p) {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += slots[histogram + i];
+        }
+        long rank = (long) Math.ceil(count * p);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += slots[histogram + i];
+            if (seen >= rank && seen > 0) {
+                return i == 63 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return 0;
+    }
+
+    static String format(String oracle, long[] s) {
+        return String.format(
+                "%s calls=%d pass=%d fail=%d thrown=%d wall[total=%dns p50<=%dns p99<=%dns] cpu[total=%dns p99<=%dns] alloc[total=%dB p99<=%dB]",
+                oracle, s[COUNT], s[PASSED], s[FAILED], s[THROWN], s[WALL_TOTAL],
+                percentile(s, WALL_HISTOGRAM, 0.5), percentile(s, WALL_HISTOGRAM, 0.99), s[CPU_TOTAL],
+                percentile(s, CPU_HISTOGRAM, 0.99), s[ALLOC_TOTAL], percentile(s, ALLOC_HISTOGRAM, 0.99));
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under
+     * {@code oracles:type=OracleMetrics}.
+     */
+    static void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("oracles:type=OracleMetrics");
+        if (!server.isRegistered(name)) {
+            server.registerMBean(INSTANCE, name);
+        }
+    }
+
+    /**
+     * Prints a snapshot every {@code period} on a daemon thread.
+     *
+     * @return the scheduler, to be shut down by the caller when done
+     */
+    static ScheduledExecutorService startPeriodicDump(long period, TimeUnit unit, PrintStream out) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "oracle-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            for (String line : INSTANCE.getSnapshot()) {
+                out.println(line);
+            }
+            out.flush();
+        }, period, period, unit);
+        return scheduler;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    @Override
+    public long getTotalInvocations() {
+        long total = 0;
+        for (long[] s : merge().values()) {
+            total += s[COUNT];
+        }
+        return total;
+    }
+
+    @Override
+    public String[] getSnapshot() {
+        return merge().entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[WALL_TOTAL], a.getValue()[WALL_TOTAL]))
+                .map(e -> format(e.getKey(), e.getValue()))
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public void reset() {
+        // Racy against concurrent writers by design; a reset is a best-effort cut
+        for (Recorder recorder : RECORDERS) {
+            recorder.stats.clear();
+        }
+    }
+
+}
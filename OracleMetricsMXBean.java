@@ -0,0 +1,15 @@
+public interface OracleMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getTotalInvocations();
+
+    /**
+     * One line per oracle, most expensive (by total wall time) first.
+     */
+    String[] getSnapshot();
+
+    void reset();
+
+}
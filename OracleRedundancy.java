@@ -0,0 +1,146 @@
+public class OracleRedundancy {
+    /**
+     * Oracles whose verdicts were identical on every input of the corpus.
+     */
+    static class Cluster {
+        final List<String> oracles = new ArrayList<>();
+        final BitSet failed; // input index -> oracle returned false
+        final BitSet thrown; // input index -> oracle threw
+
+        Cluster(BitSet failed, BitSet thrown) {
+            this.failed = failed;
+            this.thrown = thrown;
+        }
+    }
+
+    static class VerdictVector {
+        final BitSet failed = new BitSet();
+        final BitSet thrown = new BitSet();
+
+        // Inputs the oracle failed or threw on
+        BitSet flagged() {
+            BitSet flagged = (BitSet) failed.clone();
+            flagged.or(thrown);
+            return flagged;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof VerdictVector && failed.equals(((VerdictVector) o).failed)
+                    && thrown.equals(((VerdictVector) o).thrown);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * failed.hashCode() + thrown.hashCode();
+        }
+    }
+
+    /**
+     * Runs every oracle over the whole corpus and records which inputs it failed
+     * or threw on. Oracles run in parallel; each call gets a fresh copy of its
+     * input so that mutating oracles (add, retainAll, ...) do not affect each
+     * other.
+     *
+     * @param oracles oracle name to oracle, e.g.
+     *                {@code "checkNullHandling1" -> l -> listOracle.checkNullHandling1(l)}
+     * @param corpus  the shared inputs
+     * @param fresh   copies an input before each call, e.g. {@code ArrayList::new}
+     * @return oracle name to verdict vector, in the order of {@code oracles}
+     */
+    <I> Map<String, VerdictVector> verdicts(Map<String, ? extends Predicate<? super I>> oracles,
+            List<? extends I> corpus, UnaryOperator<I> fresh) {
+        Map<String, VerdictVector> vectors = new ConcurrentHashMap<>();
+        oracles.entrySet().parallelStream().forEach(e -> {
+            VerdictVector vector = new VerdictVector();
+            for (int i = 0; i < corpus.size(); i++) {
+                try {
+                    if (!e.getValue().test(fresh.apply(corpus.get(i)))) {
+                        vector.failed.set(i);
+                    }
+                } catch (Exception ex) {
+                    vector.thrown.set(i);
+                }
+            }
+            vectors.put(e.getKey(), vector);
+        });
+        Map<String, VerdictVector> ordered = new LinkedHashMap<>();
+        for (String name : oracles.keySet()) {
+            ordered.put(name, vectors.get(name));
+        }
+        return ordered;
+    }
+
+    /**
+     * Groups oracles whose verdict vectors are identical.
+     *
+     * @param verdicts as returned by {@link #verdicts}
+     * @return the clusters, each listing its oracles in the original order
+     */
+    List<Cluster> cluster(Map<String, VerdictVector> verdicts) {
+        Map<VerdictVector, Cluster> clusters = new LinkedHashMap<>();
+        for (Map.Entry<String, VerdictVector> e : verdicts.entrySet()) {
+            VerdictVector v = e.getValue();
+            clusters.computeIfAbsent(v, k -> new Cluster(k.failed, k.thrown)).oracles.add(e.getKey());
+        }
+        return new ArrayList<>(clusters.values());
+    }
+
+    /**
+     * Drops the redundant oracles: keeps one oracle per cluster of identical
+     * verdict vectors, so every distinct behaviour on the corpus, including
+     * passing everywhere, stays represented.
+     *
+     * @param clusters as returned by {@link #cluster}
+     * @return the first oracle of each cluster
+     */
+    List<String> fastTier(List<Cluster> clusters) {
+        List<String> selected = new ArrayList<>();
+        for (Cluster c : clusters) {
+            selected.add(c.oracles.get(0));
+        }
+        return selected;
+    }
+
+    /**
+     * Test oracle for checking that a fast tier still flags every input the full
+     * oracle set flags. Trivially true on the corpus the tier was derived from;
+     * meant for other corpora, where oracles that agreed before may not.
+     *
+     * @param oracles  the full oracle set
+     * @param fastTier the oracle names selected by {@link #fastTier}
+     * @param corpus   the inputs to check
+     * @param fresh    copies an input before each call
+     * @return true if no input is flagged by the full set alone, false otherwise
+     */
+    <I> boolean checkFastTierCovers(Map<String, ? extends Predicate<? super I>> oracles, List<String> fastTier,
+            List<? extends I> corpus, UnaryOperator<I> fresh) {
+        BitSet all = new BitSet();
+        BitSet fast = new BitSet();
+        for (Map.Entry<String, VerdictVector> e : verdicts(oracles, corpus, fresh).entrySet()) {
+            BitSet flagged = e.getValue().flagged();
+            all.or(flagged);
+            if (fastTier.contains(e.getKey())) {
+                fast.or(flagged);
+            }
+        }
+        all.andNot(fast);
+        return all.isEmpty();
+    }
+
+    /**
+     * Prints the clusters with more than one oracle, i.e. the redundant checks,
+     * followed by the fast tier.
+     */
+    void report(List<Cluster> clusters, List<String> fastTier, PrintStream out) {
+        for (Cluster c : clusters) {
+            if (c.oracles.size() > 1) {
+                out.println("identical verdicts (" + c.failed.cardinality() + " failed, " + c.thrown.cardinality()
+                        + " thrown): " + String.join(", ", c.oracles));
+            }
+        }
+        out.println("fast tier (" + fastTier.size() + " of " + clusters.stream().mapToInt(c -> c.oracles.size()).sum()
+                + "): " + String.join(", ", fastTier));
+    }
+
+}
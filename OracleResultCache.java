@@ -0,0 +1,286 @@
+public class OracleResultCache {
+    /**
+     * SHA-256 of the class files of an application class and of every
+     * application class it references, transitively: superclasses, nested
+     * classes such as iterators, and helpers such as StringScan or FormatPlan
+     * all decide a verdict as much as the class itself. JDK classes only change
+     * with the JDK, so they are covered by its version instead. Null for classes
+     * without a class file resource, such as lambdas and other hidden classes,
+     * which are never cached.
+     */
+    static final ClassValue<String> BYTECODE_HASH = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            ClassLoader loader = type.getClassLoader();
+            if (loader == null || loader == ClassLoader.getPlatformClassLoader()) {
+                return "jdk-" + Runtime.version();
+            }
+            String root = type.getName().replace('.', '/');
+            MessageDigest digest = sha256();
+            Set<String> seen = new HashSet<>();
+            Deque<String> pending = new ArrayDeque<>();
+            seen.add(root);
+            pending.add(root);
+            while (!pending.isEmpty()) {
+                String name = pending.poll();
+                byte[] bytes = classFile(loader, name);
+                if (bytes == null) {
+                    if (name.equals(root)) {
+                        return null;
+                    }
+                    continue; // A JDK class, or one referenced but absent
+                }
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update(bytes);
+                for (String referenced : referencedClasses(bytes)) {
+                    if (seen.add(referenced)) {
+                        pending.add(referenced);
+                    }
+                }
+            }
+            return hex(digest.digest());
+        }
+    };
+
+    final Path file;
+    final Map<String, Boolean> verdicts = new ConcurrentHashMap<>();
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+
+    /**
+     * Opens the cache persisted at {@code file}, starting empty if it does not
+     * exist yet.
+     */
+    OracleResultCache(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int space = line.lastIndexOf(' ');
+                    if (space > 0) {
+                        verdicts.put(line.substring(0, space), Boolean.parseBoolean(line.substring(space + 1)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs an oracle unless the same oracle bytecode has already judged an
+     * implementation with the same bytecode and contents on the same input, in
+     * which case the stored verdict is returned without running anything.
+     * Targets without a stable content fingerprint are never cached.
+     *
+     * @param oracleClass the class declaring the oracle, e.g. ListOracle.class
+     * @param oracle      the oracle method name, including an overload suffix if
+     *                    the caller needs to tell overloads apart
+     * @param target      the implementation under test
+     * @param fingerprint the fingerprint of the other inputs, see
+     *                    {@link #fingerprint}
+     * @param check       the oracle invocation
+     * @return the verdict of the oracle, cached or fresh
+     */
+    boolean check(Class<?> oracleClass, String oracle, Object target, String fingerprint, BooleanSupplier check) {
+        String key = key(oracleClass, oracle, target, fingerprint);
+        if (key == null) {
+            misses.increment();
+            return OracleMetrics.invoke(oracleClass.getSimpleName() + '.' + oracle, check);
+        }
+        Boolean cached = verdicts.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        // Exceptions propagate and leave nothing cached
+        boolean verdict = OracleMetrics.invoke(oracleClass.getSimpleName() + '.' + oracle, check);
+        verdicts.put(key, verdict);
+        return verdict;
+    }
+
+    String key(Class<?> oracleClass, String oracle, Object target, String fingerprint) {
+        String oracleHash = BYTECODE_HASH.get(oracleClass);
+        String targetHash = target == null ? "null" : BYTECODE_HASH.get(target.getClass());
+        String contents = fingerprint(target); // The state of the target decides the verdict too
+        if (oracleHash == null || targetHash == null || contents == null || fingerprint == null) {
+            return null;
+        }
+        return oracleHash + ':' + Runtime.version() + ':' + oracle + ':' + targetHash + ':' + contents + ':'
+                + fingerprint;
+    }
+
+    static byte[] classFile(ClassLoader loader, String name) {
+        String resource = name + ".class";
+        if (ClassLoader.getPlatformClassLoader().getResource(resource) != null) {
+            return null;
+        }
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lists the internal names of the classes in the constant pool of a class
+     * file, array element types included.
+     */
+    static List<String> referencedClasses(byte[] classFile) {
+        ByteBuffer in = ByteBuffer.wrap(classFile);
+        in.position(8); // Magic and version
+        int count = in.getShort() & 0xffff;
+        String[] utf8 = new String[count];
+        int[] classNames = new int[count];
+        int classes = 0;
+        for (int i = 1; i < count; i++) {
+            int tag = in.get();
+            switch (tag) {
+            case 1: // Utf8
+                byte[] bytes = new byte[in.getShort() & 0xffff];
+                in.get(bytes);
+                utf8[i] = new String(bytes, StandardCharsets.UTF_8); // Modified UTF-8, close enough for names
+                break;
+            case 7: // Class
+                classNames[classes++] = in.getShort() & 0xffff;
+                break;
+            case 8: case 16: case 19: case 20: // String, MethodType, Module, Package
+                in.position(in.position() + 2);
+                break;
+            case 15: // MethodHandle
+                in.position(in.position() + 3);
+                break;
+            case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                in.position(in.position() + 4);
+                break;
+            case 5: case 6: // Long and Double take two entries
+                in.position(in.position() + 8);
+                i++;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            }
+        }
+        List<String> names = new ArrayList<>();
+        for (int c = 0; c < classes; c++) {
+            String name = utf8[classNames[c]];
+            if (name.startsWith("[")) {
+                int l = name.indexOf('L');
+                if (l < 0) {
+                    continue; // A primitive array
+                }
+                name = name.substring(l + 1, name.length() - 1);
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * Fingerprints oracle inputs by content: collections and maps by their
+     * elements in iteration order, arrays by their components, anything else by
+     * class name and {@code toString()}. Inputs containing an object that keeps
+     * the identity-based {@code toString()} of Object have no stable
+     * fingerprint.
+     *
+     * @param inputs the oracle arguments, or the implementation under test
+     * @return a hex SHA-256 of the inputs, or null if they have no stable
+     *         fingerprint
+     */
+    static String fingerprint(Object... inputs) {
+        MessageDigest digest = sha256();
+        for (Object input : inputs) {
+            if (!update(digest, input)) {
+                return null;
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    static final ClassValue<Boolean> IDENTITY_TO_STRING = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("toString").getDeclaringClass() == Object.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
+    static boolean update(MessageDigest digest, Object value) {
+        boolean stable = true;
+        if (value == null) {
+            digest.update((byte) 0);
+        } else if (value instanceof Map) {
+            digest.update((byte) 1);
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                stable &= update(digest, e.getKey()) && update(digest, e.getValue());
+            }
+        } else if (value instanceof Iterable) {
+            digest.update((byte) 2);
+            for (Object element : (Iterable<?>) value) {
+                stable &= update(digest, element);
+            }
+        } else if (value instanceof Object[]) {
+            digest.update((byte) 3);
+            for (Object component : (Object[]) value) {
+                stable &= update(digest, component);
+            }
+        } else if (value.getClass().isArray()) {
+            digest.update((byte) 3);
+            digest.update(Arrays.deepToString(new Object[] { value }).getBytes(StandardCharsets.UTF_8));
+        } else if (IDENTITY_TO_STRING.get(value.getClass())) {
+            return false;
+        } else {
+            digest.update((byte) 4);
+            digest.update(value.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0xff); // Separator, so ("ab", "c") and ("a", "bc") differ
+        return stable;
+    }
+
+    /**
+     * Writes the cache back to disk, replacing the previous file atomically.
+     */
+    void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Boolean> e : verdicts.entrySet()) {
+                writer.write(e.getKey());
+                writer.write(' ');
+                writer.write(e.getValue().toString());
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform", e);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+}
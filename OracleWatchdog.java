@@ -0,0 +1,194 @@
+public class OracleWatchdog implements AutoCloseable {
+    /*
+     * Runs oracles on a pool of daemon workers under per-oracle time budgets.
+     * When an oracle starts, the watchdog schedules its alarm; if the alarm
+     * fires first the verdict becomes TIMEOUT and the worker is interrupted,
+     * which stops oracles blocked in wait, sleep or join. A worker that still
+     * has not returned after a grace period is abandoned: the pool grows by one
+     * thread so queued oracles keep running, and shrinks back if the abandoned
+     * worker ever finishes.
+     */
+    enum Verdict {
+        PASS, FAIL, ERROR, TIMEOUT
+    }
+
+    static final long DEFAULT_BUDGET_MILLIS = 10_000;
+    static final long GRACE_MILLIS = 200;
+
+    static class Result {
+        final String oracle;
+        final Verdict verdict;
+        final Throwable error; // Set for ERROR
+        final long nanos;
+
+        Result(String oracle, Verdict verdict, Throwable error, long nanos) {
+            this.oracle = oracle;
+            this.verdict = verdict;
+            this.error = error;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return oracle + "=" + verdict + (error != null ? "(" + error + ")" : "") + " in " + nanos / 1_000_000
+                    + "ms";
+        }
+    }
+
+    final ThreadPoolExecutor pool;
+    final ScheduledExecutorService alarms;
+    final Map<String, Long> budgetsMillis = new ConcurrentHashMap<>();
+    final long defaultBudgetMillis;
+    final LongAdder timeouts = new LongAdder();
+    final LongAdder abandoned = new LongAdder();
+
+    OracleWatchdog(int workers) {
+        this(workers, DEFAULT_BUDGET_MILLIS);
+    }
+
+    OracleWatchdog(int workers, long defaultBudgetMillis) {
+        this.defaultBudgetMillis = defaultBudgetMillis;
+        pool = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                daemon("oracle-worker"));
+        alarms = Executors.newSingleThreadScheduledExecutor(daemon("oracle-watchdog"));
+    }
+
+    static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true); // An abandoned worker must never keep the JVM alive
+            return t;
+        };
+    }
+
+    /**
+     * Sets the time budget of one oracle, overriding the default.
+     */
+    void budget(String oracle, long millis) {
+        budgetsMillis.put(oracle, millis);
+    }
+
+    /**
+     * Queues an oracle run; the future completes with its verdict, or with
+     * TIMEOUT as soon as its budget is spent.
+     */
+    CompletableFuture<Result> submit(String oracle, BooleanSupplier check) {
+        Watched watched = new Watched(oracle, check, budgetsMillis.getOrDefault(oracle, defaultBudgetMillis));
+        pool.execute(watched);
+        return watched.result;
+    }
+
+    /**
+     * Runs one oracle and waits for its verdict.
+     */
+    Result run(String oracle, BooleanSupplier check) {
+        return submit(oracle, check).join();
+    }
+
+    /**
+     * Runs oracles concurrently and waits for all verdicts; a hanging oracle costs
+     * at most its budget plus the grace period, never the rest of the batch.
+     *
+     * @return the results in the iteration order of {@code oracles}
+     */
+    Map<String, Result> runAll(Map<String, ? extends BooleanSupplier> oracles) {
+        Map<String, CompletableFuture<Result>> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, ? extends BooleanSupplier> e : oracles.entrySet()) {
+            pending.put(e.getKey(), submit(e.getKey(), e.getValue()));
+        }
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<Result>> e : pending.entrySet()) {
+            results.put(e.getKey(), e.getValue().join());
+        }
+        return results;
+    }
+
+    synchronized void resize(int delta) {
+        if (delta > 0) {
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta); // Maximum first, it may never drop below core
+            pool.setCorePoolSize(pool.getCorePoolSize() + delta); // Starts a thread for the queued work
+        } else {
+            pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+        }
+    }
+
+    static final int QUEUED = 0, RUNNING = 1, DONE = 2, ABANDONED = 3;
+
+    class Watched implements Runnable {
+        final String oracle;
+        final BooleanSupplier check;
+        final long budgetMillis;
+        final CompletableFuture<Result> result = new CompletableFuture<>();
+        int state = QUEUED; // Guarded by this, so an interrupt can never hit the worker's next task
+        Thread worker;
+        long start;
+
+        Watched(String oracle, BooleanSupplier check, long budgetMillis) {
+            this.oracle = oracle;
+            this.check = check;
+            this.budgetMillis = budgetMillis;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                worker = Thread.currentThread();
+                start = System.nanoTime();
+                state = RUNNING;
+            }
+            ScheduledFuture<?> alarm = alarms.schedule(this::expire, budgetMillis, TimeUnit.MILLISECONDS);
+            Verdict verdict;
+            Throwable error = null;
+            try {
+                verdict = OracleMetrics.invoke(oracle, check) ? Verdict.PASS : Verdict.FAIL;
+            } catch (Throwable t) {
+                verdict = Verdict.ERROR;
+                error = t;
+            }
+            alarm.cancel(false);
+            result.complete(new Result(oracle, verdict, error, System.nanoTime() - start)); // No-op after a TIMEOUT
+            boolean wasAbandoned;
+            synchronized (this) {
+                wasAbandoned = state == ABANDONED;
+                state = DONE;
+                Thread.interrupted(); // Clear an interrupt from the alarm before the worker is reused
+            }
+            if (wasAbandoned) {
+                resize(-1); // Its replacement is already running
+            }
+        }
+
+        void expire() {
+            if (!result.complete(new Result(oracle, Verdict.TIMEOUT, null, System.nanoTime() - start))) {
+                return;
+            }
+            timeouts.increment();
+            synchronized (this) {
+                if (state == RUNNING) {
+                    worker.interrupt(); // Cooperative cancellation
+                }
+            }
+            alarms.schedule(this::abandon, GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        void abandon() {
+            synchronized (this) {
+                if (state != RUNNING) {
+                    return; // Honoured the interrupt
+                }
+                state = ABANDONED;
+            }
+            abandoned.increment();
+            resize(1);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        alarms.shutdownNow();
+    }
+
+}
@@ -0,0 +1,223 @@
+public class OracleWorker {
+    /*
+     * Child side of OracleWorkerPool. Runs in its own JVM, reads batches of
+     * oracle calls from stdin and writes one verdict per call to stdout; the
+     * oracles' own output is redirected to stderr so it cannot corrupt the
+     * stream. Protocol, all through DataOutput:
+     *
+     * child -> parent once started: READY
+     * parent -> child: BATCH, int count, count calls; or SHUTDOWN
+     * call: string oracle class, string method, byte argc, argc tagged arguments
+     * child -> parent per call: byte verdict ordinal, long nanos, and a string
+     * message for ERROR
+     */
+    static final byte READY = 1;
+    static final byte BATCH = 2;
+    static final byte SHUTDOWN = 3;
+
+    // Argument tags
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte INT = 2;
+    static final byte LONG = 3;
+    static final byte BOOLEAN = 4;
+    static final byte CHAR = 5;
+    static final byte DOUBLE = 6;
+    static final byte NEW_INSTANCE = 7; // A fresh instance of the named class, by its no-arg constructor
+
+    /**
+     * An argument that the child constructs itself, for oracles that take
+     * arbitrary objects such as {@code new Object()}.
+     */
+    static class NewInstance {
+        final String className;
+
+        NewInstance(String className) {
+            this.className = className;
+        }
+    }
+
+    // Length-prefixed UTF-8, unlike writeUTF not limited to 64 KB
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeArgument(DataOutputStream out, Object arg) throws IOException {
+        if (arg == null) {
+            out.writeByte(NULL);
+        } else if (arg instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) arg);
+        } else if (arg instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) arg);
+        } else if (arg instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) arg);
+        } else if (arg instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) arg);
+        } else if (arg instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character) arg);
+        } else if (arg instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) arg);
+        } else if (arg instanceof NewInstance) {
+            out.writeByte(NEW_INSTANCE);
+            writeString(out, ((NewInstance) arg).className);
+        } else {
+            throw new IllegalArgumentException("Cannot send a " + arg.getClass().getName() + " to a worker JVM");
+        }
+    }
+
+    // NEW_INSTANCE arguments come back as NewInstance markers, so a failing
+    // constructor cannot leave the rest of the call unread
+    static Object readArgument(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(in);
+        case INT:
+            return in.readInt();
+        case LONG:
+            return in.readLong();
+        case BOOLEAN:
+            return in.readBoolean();
+        case CHAR:
+            return in.readChar();
+        case DOUBLE:
+            return in.readDouble();
+        case NEW_INSTANCE:
+            return new NewInstance(readString(in));
+        default:
+            throw new IOException("Unknown argument tag " + tag);
+        }
+    }
+
+    static final Map<Class<?>, Class<?>> BOXES = new HashMap<>();
+    static {
+        BOXES.put(int.class, Integer.class);
+        BOXES.put(long.class, Long.class);
+        BOXES.put(boolean.class, Boolean.class);
+        BOXES.put(char.class, Character.class);
+        BOXES.put(double.class, Double.class);
+    }
+
+    final Map<Class<?>, Object> oracles = new HashMap<>();
+
+    Method resolve(Class<?> type, String name, Object[] args) throws NoSuchMethodException {
+        for (Method m : type.getDeclaredMethods()) {
+            if (!m.getName().equals(name) || m.getParameterCount() != args.length) {
+                continue;
+            }
+            boolean applicable = true;
+            Class<?>[] parameters = m.getParameterTypes();
+            for (int i = 0; i < args.length && applicable; i++) {
+                Class<?> p = BOXES.getOrDefault(parameters[i], parameters[i]);
+                applicable = args[i] == null ? !parameters[i].isPrimitive() : p.isInstance(args[i]);
+            }
+            if (applicable) {
+                m.setAccessible(true);
+                return m;
+            }
+        }
+        throw new NoSuchMethodException(type.getName() + "." + name + " with " + args.length + " arguments");
+    }
+
+    Object oracle(Class<?> type) throws ReflectiveOperationException {
+        Object oracle = oracles.get(type);
+        if (oracle == null) {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            oracles.put(type, oracle = constructor.newInstance());
+        }
+        return oracle;
+    }
+
+    void call(DataInputStream in, DataOutputStream out) throws IOException {
+        String className = readString(in);
+        String method = readString(in);
+        int argc = in.readByte();
+        Object[] args = new Object[argc];
+        for (int i = 0; i < argc; i++) {
+            args[i] = readArgument(in);
+        }
+        OracleWatchdog.Verdict verdict;
+        String message = null;
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < argc; i++) {
+                if (args[i] instanceof NewInstance) {
+                    Constructor<?> constructor = Class.forName(((NewInstance) args[i]).className)
+                            .getDeclaredConstructor();
+                    constructor.setAccessible(true);
+                    args[i] = constructor.newInstance();
+                }
+            }
+            Class<?> type = Class.forName(className);
+            Object result = resolve(type, method, args).invoke(oracle(type), args);
+            if (!(result instanceof Boolean)) {
+                throw new IllegalStateException(method + " did not return a boolean verdict");
+            }
+            verdict = (Boolean) result ? OracleWatchdog.Verdict.PASS : OracleWatchdog.Verdict.FAIL;
+        } catch (Throwable t) {
+            Throwable cause = t instanceof InvocationTargetException ? t.getCause() : t;
+            verdict = OracleWatchdog.Verdict.ERROR;
+            message = String.valueOf(cause);
+        }
+        long nanos = System.nanoTime() - start;
+        Thread.interrupted(); // Do not leak an interrupt into the next call
+        out.writeByte(verdict.ordinal());
+        out.writeLong(nanos);
+        if (message != null) {
+            writeString(out, message);
+        }
+    }
+
+    /**
+     * @param args oracle classes to load and initialize before reporting READY
+     */
+    public static void main(String[] args) throws Exception {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+        for (String warm : args) {
+            Class.forName(warm, true, OracleWorker.class.getClassLoader());
+        }
+        out.writeByte(READY);
+        out.flush();
+        OracleWorker worker = new OracleWorker();
+        while (true) {
+            byte op;
+            try {
+                op = in.readByte();
+            } catch (EOFException e) {
+                return; // Parent went away
+            }
+            if (op == SHUTDOWN) {
+                return;
+            }
+            if (op != BATCH) {
+                throw new IOException("Unknown operation " + op);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                worker.call(in, out);
+                out.flush(); // Verdicts already reached survive a kill later in the batch
+            }
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+public class OracleWorkerPool implements AutoCloseable {
+    /*
+     * Long-lived child JVMs for oracles with JVM-global side effects (interrupt
+     * flags, the string table, GC state). Children are started ahead of use and
+     * warmed by loading the oracle classes, talk to the parent over their
+     * stdin/stdout with the binary protocol in OracleWorker, and are replaced
+     * after a configurable number of batches, or at once if a batch overruns its
+     * budget and the child has to be killed. Replacements are started, and
+     * their READY awaited, in the background, so neither JVM startup nor warmup
+     * is ever charged to a caller's batch budget.
+     */
+    static final long STARTUP_MILLIS = 60_000; // Time a child gets to start and warm up before it is killed
+    static final long RETRY_MILLIS = 100; // First delay after a failed spawn, doubled per attempt
+    static final long MAX_RETRY_MILLIS = 30_000;
+
+    static class Call {
+        final String oracleClass;
+        final String method;
+        final Object[] args;
+
+        Call(String oracleClass, String method, Object... args) {
+            if (args.length > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many arguments: " + args.length);
+            }
+            this.oracleClass = oracleClass;
+            this.method = method;
+            this.args = args;
+        }
+
+        static Call of(Class<?> oracleClass, String method, Object... args) {
+            return new Call(oracleClass.getName(), method, args);
+        }
+
+        @Override
+        public String toString() {
+            return oracleClass + "." + method;
+        }
+    }
+
+    static class Child {
+        final Process process;
+        final DataOutputStream out;
+        final DataInputStream in;
+        int batches;
+
+        Child(Process process) {
+            this.process = process;
+            out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+    }
+
+    final List<String> command = new ArrayList<>();
+    final int maxBatchesPerChild;
+    final long batchBudgetMillis;
+    final BlockingQueue<Child> idle = new LinkedBlockingQueue<>();
+    final Set<Child> children = ConcurrentHashMap.newKeySet();
+    final ExecutorService spawner = Executors.newCachedThreadPool(OracleWatchdog.daemon("oracle-spawner"));
+    final ScheduledExecutorService killer = Executors
+            .newSingleThreadScheduledExecutor(OracleWatchdog.daemon("oracle-killer"));
+    volatile IOException spawnFailure;
+    volatile boolean closed;
+
+    /**
+     * @param size               the number of child JVMs
+     * @param maxBatchesPerChild batches after which a child is replaced
+     * @param batchBudgetMillis  time after which a batch is abandoned and its
+     *                           child killed
+     * @param jvmArgs            extra child JVM options, e.g. -Xmx256m
+     * @param warmClasses        oracle classes each child loads before use
+     */
+    OracleWorkerPool(int size, int maxBatchesPerChild, long batchBudgetMillis, List<String> jvmArgs,
+            String... warmClasses) {
+        this.maxBatchesPerChild = maxBatchesPerChild;
+        this.batchBudgetMillis = batchBudgetMillis;
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(OracleWorker.class.getName());
+        command.addAll(Arrays.asList(warmClasses));
+        for (int i = 0; i < size; i++) {
+            spawnInBackground(0);
+        }
+    }
+
+    // Starts a child and waits for its READY off the caller's path. A failed
+    // start is retried with exponential backoff, so transient fork failures do
+    // not shrink the pool for good; nothing is started once the pool is closed.
+    void spawnInBackground(int attempt) {
+        if (closed) {
+            return;
+        }
+        try {
+            spawner.execute(() -> spawn(attempt));
+        } catch (RejectedExecutionException e) {
+            // Closed meanwhile
+        }
+    }
+
+    void spawn(int attempt) {
+        Child child = null;
+        try {
+            child = new Child(new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+            children.add(child);
+            Process process = child.process;
+            ScheduledFuture<?> alarm = killer.schedule(() -> {
+                process.destroyForcibly(); // Unblocks the read below with an EOF
+            }, STARTUP_MILLIS, TimeUnit.MILLISECONDS);
+            try {
+                if (child.in.readByte() != OracleWorker.READY) {
+                    throw new IOException("Worker JVM did not start");
+                }
+            } finally {
+                alarm.cancel(false);
+            }
+            release(child);
+        } catch (IOException e) {
+            spawnFailure = e;
+            if (child != null) {
+                retire(child);
+            }
+            long delay = Math.min(MAX_RETRY_MILLIS, RETRY_MILLIS << Math.min(attempt, 20));
+            try {
+                killer.schedule(() -> spawnInBackground(attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException closedMeanwhile) {
+                // No retry once the pool is closed
+            }
+        } catch (RejectedExecutionException e) {
+            retire(child); // Closed while starting
+        }
+    }
+
+    // Makes a ready child available, unless the pool has been closed meanwhile
+    void release(Child child) {
+        idle.add(child);
+        if (closed && idle.remove(child)) {
+            retire(child); // close() may have drained idle just before the add
+        }
+    }
+
+    void retire(Child child) {
+        children.remove(child);
+        try {
+            child.out.writeByte(OracleWorker.SHUTDOWN);
+            child.out.flush();
+        } catch (IOException e) {
+            // Already dead
+        }
+        child.process.destroy();
+    }
+
+    /**
+     * Runs a batch of oracle calls in one child JVM. Calls in a batch share that
+     * JVM, so a batch should hold oracles that may see each other's side
+     * effects. Waits for a ready child; the budget only starts once the batch is
+     * sent.
+     *
+     * @return one result per call, in order; calls not answered before the
+     *         budget ran out are TIMEOUT, those lost to a crashed child ERROR
+     */
+    List<OracleWatchdog.Result> runBatch(List<Call> calls) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Worker pool is closed");
+        }
+        Child child = idle.poll(STARTUP_MILLIS + batchBudgetMillis, TimeUnit.MILLISECONDS);
+        if (child == null) {
+            throw new IllegalStateException("No worker JVM became available", spawnFailure);
+        }
+        AtomicBoolean killed = new AtomicBoolean();
+        ScheduledFuture<?> alarm;
+        try {
+            alarm = killer.schedule(() -> {
+                killed.set(true);
+                child.process.destroyForcibly(); // Unblocks the read below with an EOF
+            }, batchBudgetMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            retire(child);
+            throw new IllegalStateException("Worker pool is closed", e);
+        }
+        List<OracleWatchdog.Result> results = new ArrayList<>();
+        boolean healthy = false;
+        try {
+            exchange(child, calls, results);
+            healthy = true;
+        } catch (IOException e) {
+            OracleWatchdog.Verdict lost = killed.get() ? OracleWatchdog.Verdict.TIMEOUT : OracleWatchdog.Verdict.ERROR;
+            for (int i = results.size(); i < calls.size(); i++) {
+                results.add(new OracleWatchdog.Result(calls.get(i).toString(), lost, killed.get() ? null : e, 0));
+            }
+        } finally {
+            alarm.cancel(false);
+            if (!healthy || ++child.batches >= maxBatchesPerChild || closed) {
+                retire(child);
+                spawnInBackground(0); // Does nothing once the pool is closed
+            } else {
+                release(child);
+            }
+        }
+        return results;
+    }
+
+    void exchange(Child child, List<Call> calls, List<OracleWatchdog.Result> results) throws IOException {
+        child.out.writeByte(OracleWorker.BATCH);
+        child.out.writeInt(calls.size());
+        for (Call call : calls) {
+            OracleWorker.writeString(child.out, call.oracleClass);
+            OracleWorker.writeString(child.out, call.method);
+            child.out.writeByte(call.args.length);
+            for (Object arg : call.args) {
+                OracleWorker.writeArgument(child.out, arg);
+            }
+        }
+        child.out.flush();
+        OracleWatchdog.Verdict[] verdicts = OracleWatchdog.Verdict.values();
+        for (Call call : calls) {
+            OracleWatchdog.Verdict verdict = verdicts[child.in.readByte()];
+            long nanos = child.in.readLong();
+            Throwable error = verdict == OracleWatchdog.Verdict.ERROR
+                    ? new IllegalStateException(OracleWorker.readString(child.in))
+                    : null;
+            results.add(new OracleWatchdog.Result(call.toString(), verdict, error, nanos));
+        }
+    }
+
+    /**
+     * Retires the idle children at once; children in the middle of a batch
+     * finish it and are retired when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Child child; (child = idle.poll()) != null;) {
+            retire(child);
+        }
+        spawner.shutdown();
+        killer.shutdown(); // Alarms of running batches still fire
+    }
+
+}
@@ -0,0 +1,60 @@
+public class PrimitiveCollections {
+    /*
+     * Minimal primitive views, named after the fastutil methods they stand for, so
+     * that primitive collections can be checked without boxing. Adapters for a
+     * concrete library only need to delegate.
+     */
+
+    public interface IntCollection {
+        int size();
+
+        boolean contains(int k);
+
+        int[] toIntArray();
+
+        boolean retainAll(IntCollection c);
+    }
+
+    public interface IntList extends IntCollection {
+        int getInt(int index);
+
+        int indexOf(int k);
+
+        int lastIndexOf(int k);
+
+        /**
+         * Sorts the list into ascending numerical order.
+         */
+        void sort();
+    }
+
+    public interface IntSet extends IntCollection {
+    }
+
+    public interface LongCollection {
+        int size();
+
+        boolean contains(long k);
+
+        long[] toLongArray();
+
+        boolean retainAll(LongCollection c);
+    }
+
+    public interface LongList extends LongCollection {
+        long getLong(int index);
+
+        int indexOf(long k);
+
+        int lastIndexOf(long k);
+
+        /**
+         * Sorts the list into ascending numerical order.
+         */
+        void sort();
+    }
+
+    public interface LongSet extends LongCollection {
+    }
+
+}
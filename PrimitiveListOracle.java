@@ -0,0 +1,271 @@
+public class PrimitiveListOracle {
+    /**
+     * Test oracle for checking if the int list correctly identifies presence of a
+     * specified value, without boxing.
+     *
+     * @param list the list to check
+     * @param k    the value to be tested for presence in the list
+     * @return true if contains agrees with a scan of the list, false otherwise
+     */
+    boolean checkContains(PrimitiveCollections.IntList list, int k) {
+        boolean result = list.contains(k);
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (list.getInt(i) == k) {
+                return result; // Should be true if the value is found
+            }
+        }
+        return !result; // Should be false if no such value is found
+    }
+
+    /**
+     * Test oracle for checking if the long list correctly identifies presence of a
+     * specified value, without boxing.
+     *
+     * @param list the list to check
+     * @param k    the value to be tested for presence in the list
+     * @return true if contains agrees with a scan of the list, false otherwise
+     */
+    boolean checkContains(PrimitiveCollections.LongList list, long k) {
+        boolean result = list.contains(k);
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (list.getLong(i) == k) {
+                return result; // Should be true if the value is found
+            }
+        }
+        return !result; // Should be false if no such value is found
+    }
+
+    /**
+     * Test oracle for checking if indexOf(int) returns the first occurrence of the
+     * value.
+     *
+     * @param list the list to be checked
+     * @param k    the value to search for
+     * @return true if the index returned is the first occurrence of the value or
+     *         -1 if it is absent, false otherwise
+     */
+    boolean checkElementLocation(PrimitiveCollections.IntList list, int k) {
+        int index = list.indexOf(k);
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (list.getInt(i) == k) {
+                return index == i; // First occurrence must be reported
+            }
+        }
+        return index == -1; // Absent values must be reported as -1
+    }
+
+    /**
+     * Test oracle for checking if indexOf(long) returns the first occurrence of
+     * the value.
+     *
+     * @param list the list to be checked
+     * @param k    the value to search for
+     * @return true if the index returned is the first occurrence of the value or
+     *         -1 if it is absent, false otherwise
+     */
+    boolean checkElementLocation(PrimitiveCollections.LongList list, long k) {
+        int index = list.indexOf(k);
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (list.getLong(i) == k) {
+                return index == i; // First occurrence must be reported
+            }
+        }
+        return index == -1; // Absent values must be reported as -1
+    }
+
+    /**
+     * Test oracle for checking if lastIndexOf(int) returns the last occurrence of
+     * the value.
+     *
+     * @param list the list to be checked
+     * @param k    the value to search for
+     * @return true if the index returned is the last occurrence of the value or -1
+     *         if it is absent, false otherwise
+     */
+    boolean checkLastElementLocation(PrimitiveCollections.IntList list, int k) {
+        int index = list.lastIndexOf(k);
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.getInt(i) == k) {
+                return index == i; // Last occurrence must be reported
+            }
+        }
+        return index == -1; // Absent values must be reported as -1
+    }
+
+    /**
+     * Test oracle for checking if lastIndexOf(long) returns the last occurrence
+     * of the value.
+     *
+     * @param list the list to be checked
+     * @param k    the value to search for
+     * @return true if the index returned is the last occurrence of the value or -1
+     *         if it is absent, false otherwise
+     */
+    boolean checkLastElementLocation(PrimitiveCollections.LongList list, long k) {
+        int index = list.lastIndexOf(k);
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.getLong(i) == k) {
+                return index == i; // Last occurrence must be reported
+            }
+        }
+        return index == -1; // Absent values must be reported as -1
+    }
+
+    /**
+     * Test oracle for checking if toIntArray() returns the elements in list order.
+     *
+     * @param list the list to be checked
+     * @return true if the array matches the list element by element, false
+     *         otherwise
+     */
+    boolean checkToArraySequence(PrimitiveCollections.IntList list) {
+        int[] array = list.toIntArray();
+        if (array.length != list.size()) {
+            return false; // Fail if the array size does not match the list size
+        }
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != list.getInt(i)) {
+                return false; // Fail if any element does not match
+            }
+        }
+        return true; // Pass if all elements match and are in order
+    }
+
+    /**
+     * Test oracle for checking if toLongArray() returns the elements in list
+     * order.
+     *
+     * @param list the list to be checked
+     * @return true if the array matches the list element by element, false
+     *         otherwise
+     */
+    boolean checkToArraySequence(PrimitiveCollections.LongList list) {
+        long[] array = list.toLongArray();
+        if (array.length != list.size()) {
+            return false; // Fail if the array size does not match the list size
+        }
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != list.getLong(i)) {
+                return false; // Fail if any element does not match
+            }
+        }
+        return true; // Pass if all elements match and are in order
+    }
+
+    /**
+     * Test oracle for checking if the int list hash code equals that of the
+     * equivalent {@code List<Integer>}.
+     *
+     * @param list the list whose hash code is to be tested
+     * @return true if the hash code matches the List contract, false otherwise
+     */
+    boolean checkHashCode(PrimitiveCollections.IntList list) {
+        int expectedHashCode = 1;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            expectedHashCode = 31 * expectedHashCode + Integer.hashCode(list.getInt(i));
+        }
+        return list.hashCode() == expectedHashCode;
+    }
+
+    /**
+     * Test oracle for checking if the long list hash code equals that of the
+     * equivalent {@code List<Long>}.
+     *
+     * @param list the list whose hash code is to be tested
+     * @return true if the hash code matches the List contract, false otherwise
+     */
+    boolean checkHashCode(PrimitiveCollections.LongList list) {
+        int expectedHashCode = 1;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            expectedHashCode = 31 * expectedHashCode + Long.hashCode(list.getLong(i));
+        }
+        return list.hashCode() == expectedHashCode;
+    }
+
+    /**
+     * Test oracle for checking if retainAll keeps exactly the elements contained
+     * in the given collection, in their original order.
+     *
+     * @param list the list to be checked
+     * @param c    the collection containing elements to be retained
+     * @return true if the list retains the right elements and the result reflects
+     *         whether it changed, false otherwise
+     */
+    boolean checkRetentionOfElements(PrimitiveCollections.IntList list, PrimitiveCollections.IntCollection c) {
+        int[] original = list.toIntArray();
+        boolean result = list.retainAll(c);
+        int retained = 0;
+        for (int value : original) {
+            if (c.contains(value)) {
+                if (retained >= list.size() || list.getInt(retained) != value) {
+                    return false; // Retained elements must keep their order
+                }
+                retained++;
+            }
+        }
+        return retained == list.size() && result == (retained != original.length);
+    }
+
+    /**
+     * Test oracle for checking if retainAll keeps exactly the elements contained
+     * in the given collection, in their original order.
+     *
+     * @param list the list to be checked
+     * @param c    the collection containing elements to be retained
+     * @return true if the list retains the right elements and the result reflects
+     *         whether it changed, false otherwise
+     */
+    boolean checkRetentionOfElements(PrimitiveCollections.LongList list, PrimitiveCollections.LongCollection c) {
+        long[] original = list.toLongArray();
+        boolean result = list.retainAll(c);
+        int retained = 0;
+        for (long value : original) {
+            if (c.contains(value)) {
+                if (retained >= list.size() || list.getLong(retained) != value) {
+                    return false; // Retained elements must keep their order
+                }
+                retained++;
+            }
+        }
+        return retained == list.size() && result == (retained != original.length);
+    }
+
+    /**
+     * Test oracle for checking if sort() orders the int list ascending without
+     * losing or inventing elements.
+     *
+     * @param list the list to be checked
+     * @return true if the list is a sorted permutation of its former contents,
+     *         false otherwise
+     */
+    boolean checkSorting(PrimitiveCollections.IntList list) {
+        int[] expected = list.toIntArray();
+        Arrays.sort(expected);
+        try {
+            list.sort();
+            return Arrays.equals(expected, list.toIntArray());
+        } catch (Exception ex) {
+            return false; // If any sorting exception occurs
+        }
+    }
+
+    /**
+     * Test oracle for checking if sort() orders the long list ascending without
+     * losing or inventing elements.
+     *
+     * @param list the list to be checked
+     * @return true if the list is a sorted permutation of its former contents,
+     *         false otherwise
+     */
+    boolean checkSorting(PrimitiveCollections.LongList list) {
+        long[] expected = list.toLongArray();
+        Arrays.sort(expected);
+        try {
+            list.sort();
+            return Arrays.equals(expected, list.toLongArray());
+        } catch (Exception ex) {
+            return false; // If any sorting exception occurs
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+public class PrimitiveSetOracle {
+    boolean checkContains(PrimitiveCollections.IntSet set, int k) {
+        try {
+            boolean expected = set.contains(k); // Invoke contains()
+            boolean actual = false;
+            for (int value : set.toIntArray()) {
+                actual |= value == k; // Check by scanning the elements
+            }
+            return expected == actual;
+        } catch (Exception e) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkContains(PrimitiveCollections.LongSet set, long k) {
+        try {
+            boolean expected = set.contains(k); // Invoke contains()
+            boolean actual = false;
+            for (long value : set.toLongArray()) {
+                actual |= value == k; // Check by scanning the elements
+            }
+            return expected == actual;
+        } catch (Exception e) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkToArrayElements(PrimitiveCollections.IntSet set) {
+        try {
+            int[] array = set.toIntArray();
+            if (array.length != set.size()) {
+                return false;
+            }
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                if (!set.contains(sorted[i]) || (i > 0 && sorted[i] == sorted[i - 1])) {
+                    return false; // Every element must belong to the set and appear once
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkToArrayElements(PrimitiveCollections.LongSet set) {
+        try {
+            long[] array = set.toLongArray();
+            if (array.length != set.size()) {
+                return false;
+            }
+            long[] sorted = array.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                if (!set.contains(sorted[i]) || (i > 0 && sorted[i] == sorted[i - 1])) {
+                    return false; // Every element must belong to the set and appear once
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkHashCode(PrimitiveCollections.IntSet set) {
+        try {
+            int manualHashCode = 0;
+            for (int value : set.toIntArray()) {
+                manualHashCode += Integer.hashCode(value);
+            }
+            return set.hashCode() == manualHashCode; // Must match the hash code of the equivalent Set<Integer>
+        } catch (Exception ex) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkHashCode(PrimitiveCollections.LongSet set) {
+        try {
+            int manualHashCode = 0;
+            for (long value : set.toLongArray()) {
+                manualHashCode += Long.hashCode(value);
+            }
+            return set.hashCode() == manualHashCode; // Must match the hash code of the equivalent Set<Long>
+        } catch (Exception ex) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkRetainAll(PrimitiveCollections.IntSet set, PrimitiveCollections.IntCollection c) {
+        try {
+            int[] original = set.toIntArray();
+            boolean result = set.retainAll(c);
+            int expectedSize = 0;
+            for (int value : original) {
+                if (c.contains(value)) {
+                    if (!set.contains(value)) {
+                        return false; // Elements of c must be retained
+                    }
+                    expectedSize++;
+                }
+            }
+            return set.size() == expectedSize && result == (expectedSize != original.length);
+        } catch (Exception ex) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkRetainAll(PrimitiveCollections.LongSet set, PrimitiveCollections.LongCollection c) {
+        try {
+            long[] original = set.toLongArray();
+            boolean result = set.retainAll(c);
+            int expectedSize = 0;
+            for (long value : original) {
+                if (c.contains(value)) {
+                    if (!set.contains(value)) {
+                        return false; // Elements of c must be retained
+                    }
+                    expectedSize++;
+                }
+            }
+            return set.size() == expectedSize && result == (expectedSize != original.length);
+        } catch (Exception ex) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+}
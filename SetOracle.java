@@ -96,7 +96,22 @@ public class SetOracle {
     boolean checkToArrayElements(Set<?> set) {
         try {
             Object[] array = set.toArray();
-            return array.length == set.size() && Arrays.asList(array).containsAll(set);
+            if (array.length != set.size()) {
+                return false;
+            }
+            Object[] iterated = OracleBuffers.objects(array.length); // Pooled, avoids a per-call copy
+            try {
+                int i = 0;
+                for (Iterator<?> it = set.iterator(); it.hasNext() && i < array.length;) {
+                    iterated[i++] = it.next();
+                }
+                if (i == array.length && Arrays.mismatch(array, 0, i, iterated, 0, i) == -1) {
+                    return true; // Same elements in iteration order, the usual case, checked in bulk
+                }
+            } finally {
+                OracleBuffers.release(iterated, array.length);
+            }
+            return Arrays.asList(array).containsAll(set); // Order may legitimately differ, fall back to containment
         } catch (Exception e) {
             return false; // Return false if there's an exception
         }
@@ -615,4 +630,30 @@ public class SetOracle {
         }
     }
 
+    boolean checkMaxSizeLimit(Set<?> set, long elementCount) {
+        try {
+            return set.size() == Math.min(elementCount, Integer.MAX_VALUE); // size() is capped, never truncated or negative
+        } catch (Exception e) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkSpliteratorExactSize(Set<?> set, long elementCount) {
+        try {
+            return set.spliterator().getExactSizeIfKnown() == elementCount; // Must report the real count beyond the cap
+        } catch (Exception e) {
+            return false; // Return false if there's an exception
+        }
+    }
+
+    boolean checkToArrayCapacity(Set<?> set, long elementCount) {
+        try {
+            return set.toArray().length == elementCount;
+        } catch (OutOfMemoryError e) {
+            return elementCount > Integer.MAX_VALUE - 8; // No array can hold that many elements
+        } catch (Exception e) {
+            return false; // Return false if there's an exception
+        }
+    }
+
 }
@@ -0,0 +1,185 @@
+public class StringCorpusDriver {
+    /*
+     * Runs String oracles over newline-separated UTF-8 corpus files of any size.
+     * Files are split into segments at record boundaries and memory-mapped one
+     * segment at a time; each worker decodes its segment in chunks into a
+     * reusable per-thread CharBuffer and hands records to the oracles as they
+     * are cut, so heap use depends on the worker count and the longest record,
+     * not on the corpus size.
+     */
+    static final long SEGMENT_BYTES = 64L << 20;
+    static final int INITIAL_CHARS = 1 << 20;
+    static final int MAX_SAMPLES = 10;
+
+    static final ThreadLocal<CharsetDecoder> DECODER = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8
+            .newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE));
+    static final ThreadLocal<CharBuffer[]> CHARS = ThreadLocal
+            .withInitial(() -> new CharBuffer[] { CharBuffer.allocate(INITIAL_CHARS) });
+
+    final Map<String, ? extends Predicate<String>> oracles;
+    final int workers;
+    final LongAdder records = new LongAdder();
+    final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    final Map<String, Queue<String>> samples = new ConcurrentHashMap<>();
+
+    /**
+     * @param oracles oracle name to oracle over one record, e.g.
+     *                {@code "checkLength" -> s -> stringOracle.checkLength(s)}
+     * @param workers the number of parallel workers
+     */
+    StringCorpusDriver(Map<String, ? extends Predicate<String>> oracles, int workers) {
+        this.oracles = oracles;
+        this.workers = workers;
+        for (String name : oracles.keySet()) {
+            failures.put(name, new LongAdder());
+            samples.put(name, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Test oracle for running every oracle over every record of the corpus.
+     *
+     * @param files the corpus files
+     * @return true if no oracle failed or threw on any record, false otherwise
+     */
+    boolean checkCorpus(List<Path> files) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<FileChannel> channels = new ArrayList<>();
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (Path file : files) {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                channels.add(channel);
+                long size = channel.size();
+                for (long start = 0; start < size;) {
+                    long end = start + SEGMENT_BYTES >= size ? size : recordBoundary(channel, start + SEGMENT_BYTES);
+                    long from = start;
+                    pending.add(pool.submit(() -> {
+                        process(channel, from, end);
+                        return null;
+                    }));
+                    start = end;
+                }
+            }
+            for (Future<?> f : pending) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Corpus worker failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+        return failures.values().stream().allMatch(f -> f.sum() == 0);
+    }
+
+    /**
+     * Returns the position just after the first newline at or after {@code pos},
+     * or the file size if there is none. The newline byte never occurs inside a
+     * multi-byte UTF-8 sequence, so this is always a char boundary too.
+     */
+    long recordBoundary(FileChannel channel, long pos) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long size = channel.size();
+        while (pos < size) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    void process(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharsetDecoder decoder = DECODER.get().reset();
+        CharBuffer[] holder = CHARS.get();
+        CharBuffer out = holder[0];
+        out.clear();
+        while (true) {
+            CoderResult result = decoder.decode(in, out, true);
+            if (result.isUnderflow()) {
+                decoder.flush(out);
+                emit(out, true);
+                return;
+            }
+            // Overflow: hand out the complete records and keep the partial one
+            if (!emit(out, false)) {
+                CharBuffer larger = CharBuffer.allocate(out.capacity() * 2); // One record fills the buffer
+                out.flip();
+                larger.put(out);
+                holder[0] = out = larger;
+            }
+        }
+    }
+
+    /**
+     * Runs the oracles on every complete record in the buffer and compacts the
+     * remainder to the front. On the last call the trailing record is emitted even
+     * without a final newline.
+     *
+     * @return whether any record was emitted
+     */
+    boolean emit(CharBuffer out, boolean last) {
+        out.flip();
+        char[] chars = out.array();
+        int base = out.arrayOffset();
+        int recordStart = 0;
+        boolean emitted = false;
+        for (int i = 0; i < out.limit(); i++) {
+            if (chars[base + i] == '\n') {
+                int recordEnd = i > recordStart && chars[base + i - 1] == '\r' ? i - 1 : i;
+                check(new String(chars, base + recordStart, recordEnd - recordStart));
+                recordStart = i + 1;
+                emitted = true;
+            }
+        }
+        if (last && recordStart < out.limit()) {
+            check(new String(chars, base + recordStart, out.limit() - recordStart));
+            recordStart = out.limit();
+            emitted = true;
+        }
+        out.position(recordStart);
+        out.compact();
+        return emitted;
+    }
+
+    void check(String record) {
+        records.increment();
+        for (Map.Entry<String, ? extends Predicate<String>> e : oracles.entrySet()) {
+            boolean passed;
+            try {
+                passed = OracleMetrics.invoke(e.getKey(), record.length(), () -> e.getValue().test(record));
+            } catch (Exception ex) {
+                passed = false;
+            }
+            if (!passed) {
+                failures.get(e.getKey()).increment();
+                Queue<String> kept = samples.get(e.getKey());
+                if (kept.size() < MAX_SAMPLES) {
+                    kept.add(record.length() > 200 ? record.substring(0, 200) + "..." : record);
+                }
+            }
+        }
+    }
+
+    void report(PrintStream out) {
+        out.println("records=" + records.sum());
+        for (String name : oracles.keySet()) {
+            long failed = failures.get(name).sum();
+            if (failed > 0) {
+                out.println(name + " failed=" + failed + " samples=" + samples.get(name));
+            }
+        }
+    }
+
+}
@@ -267,21 +267,10 @@ public class StringOracle {
             return false;
         }
         try {
-            // Directly counting code points in the substring and comparing with expected
-            // value
-            String subStr = str.substring(beginIndex, endIndex);
+            // Every char counts once except that a surrogate pair counts once in total;
+            // unpaired surrogates therefore count as one code point each
             int countByMethod = str.codePointCount(beginIndex, endIndex);
-            int actualCount = 0;
-            for (int i = 0; i < subStr.length(); i++) {
-                if (!Character.isSurrogate(subStr.charAt(i)) || (Character.isHighSurrogate(subStr.charAt(i))
-                        && (i + 1 < subStr.length()) && Character.isLowSurrogate(subStr.charAt(i + 1)))) {
-                    actualCount++;
-                }
-                if (Character.isLowSurrogate(subStr.charAt(i))
-                        && (i == 0 || !Character.isHighSurrogate(subStr.charAt(i - 1)))) {
-                    actualCount++;
-                }
-            }
+            int actualCount = StringScan.codePointCount(str, beginIndex, endIndex);
             return countByMethod == actualCount;
         } catch (Exception e) {
             return false; // Handle unexpected exceptions.
@@ -391,11 +380,45 @@ public class StringOracle {
             return false;
         }
         try {
-            char[] expected = new char[srcEnd - srcBegin];
-            System.arraycopy(str.toCharArray(), srcBegin, expected, 0, srcEnd - srcBegin);
+            int length = srcEnd - srcBegin;
+            char[] expected = OracleBuffers.chars(length); // Pooled per thread, only [0, length) is used
+            for (int i = 0; i < length; i++) {
+                expected[i] = str.charAt(srcBegin + i);
+            }
             str.getChars(srcBegin, srcEnd, dst, dstBegin);
-            for (int i = 0; i < expected.length; i++) {
-                if (dst[dstBegin + i] != expected[i]) {
+            return Arrays.mismatch(dst, dstBegin, dstBegin + length, expected, 0, length) == -1;
+        } catch (Exception e) {
+            return false; // Handle unexpected exceptions gracefully.
+        }
+    }
+
+    /**
+     * Test oracle to check getChars over many ranges of the same string in one
+     * call. The expected characters are extracted once for the whole string and
+     * each copy lands in a pooled destination buffer, so a batch allocates at
+     * most one array regardless of the number of ranges.
+     * 
+     * @param str    the string from which characters are copied
+     * @param ranges pairs of srcBegin, srcEnd
+     * @return true if every range is correctly copied, false otherwise
+     */
+    boolean checkCharacterCopying(String str, int[] ranges) {
+        if (str == null || ranges == null || ranges.length % 2 != 0) {
+            return false;
+        }
+        try {
+            char[] expected = str.toCharArray();
+            for (int r = 0; r < ranges.length; r += 2) {
+                int srcBegin = ranges[r], srcEnd = ranges[r + 1];
+                if (srcBegin < 0 || srcEnd > expected.length || srcBegin > srcEnd) {
+                    return false;
+                }
+                char[] dst = OracleBuffers.chars(srcEnd - srcBegin);
+                for (int i = srcBegin; i < srcEnd; i++) {
+                    dst[i - srcBegin] = (char) ~expected[i]; // Differs from the expected char, unlike leftovers
+                }
+                str.getChars(srcBegin, srcEnd, dst, 0);
+                if (Arrays.mismatch(dst, 0, srcEnd - srcBegin, expected, srcBegin, srcEnd) != -1) {
                     return false;
                 }
             }
@@ -448,13 +471,49 @@ public class StringOracle {
             return false;
         }
         try {
-            byte[] expected = new byte[srcEnd - srcBegin];
-            for (int i = 0; i < expected.length; i++) {
+            int length = srcEnd - srcBegin;
+            byte[] expected = OracleBuffers.bytes(length); // Pooled per thread, only [0, length) is used
+            for (int i = 0; i < length; i++) {
                 expected[i] = (byte) (str.charAt(srcBegin + i) & 0xFF);
             }
             str.getBytes(srcBegin, srcEnd, dst, dstBegin);
-            for (int i = 0; i < expected.length; i++) {
-                if (dst[dstBegin + i] != expected[i]) {
+            return Arrays.mismatch(dst, dstBegin, dstBegin + length, expected, 0, length) == -1;
+        } catch (Exception e) {
+            return false; // Handle unexpected exceptions gracefully.
+        }
+    }
+
+    /**
+     * Test oracle to check the deprecated getBytes over many ranges of the same
+     * string in one call, with the expected bytes computed once for the whole
+     * string and pooled destination buffers.
+     * 
+     * @param str    the string from which characters are copied
+     * @param ranges pairs of srcBegin, srcEnd
+     * @return true if every range is correctly converted and copied, false
+     *         otherwise
+     */
+    boolean checkCharacterToByteConversion(String str, int[] ranges) {
+        if (str == null || ranges == null || ranges.length % 2 != 0) {
+            return false;
+        }
+        try {
+            int length = str.length();
+            byte[] expected = new byte[length];
+            for (int i = 0; i < length; i++) {
+                expected[i] = (byte) (str.charAt(i) & 0xFF);
+            }
+            for (int r = 0; r < ranges.length; r += 2) {
+                int srcBegin = ranges[r], srcEnd = ranges[r + 1];
+                if (srcBegin < 0 || srcEnd > length || srcBegin > srcEnd) {
+                    return false;
+                }
+                byte[] dst = OracleBuffers.bytes(srcEnd - srcBegin);
+                for (int i = srcBegin; i < srcEnd; i++) {
+                    dst[i - srcBegin] = (byte) ~expected[i]; // Differs from the expected byte, unlike leftovers
+                }
+                str.getBytes(srcBegin, srcEnd, dst, 0);
+                if (Arrays.mismatch(dst, 0, srcEnd - srcBegin, expected, srcBegin, srcEnd) != -1) {
                     return false;
                 }
             }
@@ -656,15 +715,7 @@ public class StringOracle {
     boolean checkEqualsIgnoreCase(String str, String anotherStr) {
         if (str == null || anotherStr == null)
             return str == anotherStr;
-        if (str.length() != anotherStr.length())
-            return false;
-        for (int i = 0; i < str.length(); i++) {
-            if (Character.toLowerCase(str.charAt(i)) != Character.toLowerCase(anotherStr.charAt(i)) &&
-                    Character.toUpperCase(str.charAt(i)) != Character.toUpperCase(anotherStr.charAt(i))) {
-                return false;
-            }
-        }
-        return true;
+        return StringScan.equalsIgnoreCase(str, anotherStr); // Identical runs are skipped in bulk
     }
 
     /**
@@ -756,7 +807,37 @@ public class StringOracle {
         if (str == null || cs == null) {
             return false; // Return false if either parameter is null as per typical Java conventions
         }
-        return str.toString().equals(cs.toString());
+        // Compared in place: a large StringBuilder or mapped CharBuffer is never copied
+        return str.length() == cs.length() && regionEquals(str, 0, cs, 0, str.length());
+    }
+
+    /**
+     * Compares {@code length} chars of two char sequences without converting
+     * either to a String. CharBuffers (including direct ones over mapped memory)
+     * are compared in bulk through zero-copy slices, Strings through
+     * regionMatches, anything else char by char.
+     * 
+     * @param a      the first sequence
+     * @param aFrom  the start index in the first sequence
+     * @param b      the second sequence
+     * @param bFrom  the start index in the second sequence
+     * @param length the number of chars to compare
+     * @return true if both ranges hold the same chars, false otherwise
+     */
+    boolean regionEquals(CharSequence a, int aFrom, CharSequence b, int bFrom, int length) {
+        if (a instanceof CharBuffer && b instanceof CharBuffer) {
+            CharBuffer x = (CharBuffer) a, y = (CharBuffer) b;
+            return x.slice(x.position() + aFrom, length).mismatch(y.slice(y.position() + bFrom, length)) == -1;
+        }
+        if (a instanceof String && b instanceof String) {
+            return ((String) a).regionMatches(aFrom, (String) b, bFrom, length);
+        }
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(aFrom + i) != b.charAt(bFrom + i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -1157,23 +1238,10 @@ public class StringOracle {
      *         otherwise
      */
     boolean checkIndexOf(String str, int ch) {
-        int expectedIndex = -1;
-        // Adjusting the loop limit for code points greater than 0xFFFF
-        int end = str.codePointCount(0, str.length());
-        for (int i = 0, cpIndex = 0; i < str.length(); i += Character.charCount(str.codePointAt(i)), cpIndex++) {
-            int currentCP = str.codePointAt(i);
-            if (currentCP == ch) {
-                expectedIndex = cpIndex;
-                break;
-            }
-        }
-
+        // Both sides in char units: the first charAt(k) == ch for BMP values,
+        // codePointAt(k) == ch for supplementary code points
+        int expectedIndex = StringScan.indexOf(str, ch);
         int actualIndex = str.indexOf(ch);
-        // Adjust index for code points that use two code units
-        if (actualIndex != -1 && ch > 0xFFFF) {
-            actualIndex = str.substring(0, actualIndex).codePointCount(0, actualIndex);
-        }
-
         return actualIndex == expectedIndex;
     }
 
@@ -1188,7 +1256,7 @@ public class StringOracle {
      *         false otherwise
      */
     boolean checkCharacterNotFound(String str, int ch) {
-        if (!str.contains(String.valueOf(Character.toChars(ch)))) {
+        if (StringScan.indexOf(str, ch) == -1) {
             return str.indexOf(ch) == -1;
         }
         return true; // If character exists, this test is not applicable
@@ -1248,23 +1316,7 @@ public class StringOracle {
      *         otherwise
      */
     boolean checkLastIndexOf(String str, int ch) {
-        int expectedIndex = -1;
-        for (int i = str.length() - 1; i >= 0; i--) {
-            int currentCP = str.codePointAt(i);
-            if (currentCP == ch) {
-                expectedIndex = i;
-                if (Character.isSupplementaryCodePoint(currentCP)) {
-                    expectedIndex = i; // Adjust for surrogate pairs if necessary
-                }
-                break;
-            }
-            // Handle surrogate pairs
-            if (Character.isSurrogate(str.charAt(i)) && i > 0
-                    && Character.isSurrogatePair(str.charAt(i - 1), str.charAt(i))) {
-                i--;
-            }
-        }
-
+        int expectedIndex = StringScan.lastIndexOf(str, ch); // Last charAt(k) == ch, or codePointAt(k) == ch
         int actualIndex = str.lastIndexOf(ch);
         return actualIndex == expectedIndex;
     }
@@ -1592,6 +1644,89 @@ public class StringOracle {
         return result == -1;
     }
 
+    /**
+     * Test oracle to check indexOf and lastIndexOf for many substrings at once.
+     * The expected first and last occurrences of every needle come from a single
+     * scan of mainStr with an automaton built once over all needles, instead of
+     * one startsWith loop per needle.
+     * 
+     * @param mainStr the main String to test
+     * @param needles the substrings to search for, built once and reused across
+     *                haystacks
+     * @return true if indexOf and lastIndexOf match the expected occurrence of
+     *         every needle, false otherwise
+     */
+    boolean checkIndexOfSubstrings(String mainStr, NeedleAutomaton needles) {
+        int[] first = needles.firstOccurrences(mainStr, 0);
+        int[] last = needles.lastOccurrences(mainStr, Integer.MAX_VALUE);
+        for (int i = 0; i < needles.needles.length; i++) {
+            String substring = needles.needles[i];
+            if (mainStr.indexOf(substring) != first[i] || mainStr.lastIndexOf(substring) != last[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Test oracle to check indexOf(String, int) for many substrings at once, see
+     * {@link #checkIndexOfSubstrings(String, NeedleAutomaton)}.
+     * 
+     * @param mainStr   the main String to test
+     * @param needles   the substrings to search for
+     * @param fromIndex the index to start the search from
+     * @return true if indexOf returns the expected index for every needle, false
+     *         otherwise
+     */
+    boolean checkIndexOfFromIndex(String mainStr, NeedleAutomaton needles, int fromIndex) {
+        int[] expected = needles.firstOccurrences(mainStr, fromIndex);
+        for (int i = 0; i < expected.length; i++) {
+            if (mainStr.indexOf(needles.needles[i], fromIndex) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Test oracle to check lastIndexOf(String, int) for many substrings at once,
+     * see {@link #checkIndexOfSubstrings(String, NeedleAutomaton)}.
+     * 
+     * @param mainStr   the main String to test
+     * @param needles   the substrings to search for
+     * @param fromIndex the index to start the backward search from
+     * @return true if lastIndexOf returns the expected index for every needle,
+     *         false otherwise
+     */
+    boolean checkLastIndexOfFromIndex(String mainStr, NeedleAutomaton needles, int fromIndex) {
+        int[] expected = needles.lastOccurrences(mainStr, fromIndex);
+        for (int i = 0; i < expected.length; i++) {
+            if (mainStr.lastIndexOf(needles.needles[i], fromIndex) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Test oracle to check contains for many substrings at once against the
+     * occurrences found in a single automaton scan.
+     * 
+     * @param mainStr the main String to test
+     * @param needles the substrings to search for
+     * @return true if contains is true exactly for the needles that occur, false
+     *         otherwise
+     */
+    boolean checkContains(String mainStr, NeedleAutomaton needles) {
+        int[] first = needles.firstOccurrences(mainStr, 0);
+        for (int i = 0; i < first.length; i++) {
+            if (mainStr.contains(needles.needles[i]) != (first[i] >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Test oracle to check if substring method correctly extracts the substring
      * starting from a given index.
@@ -1709,9 +1844,10 @@ public class StringOracle {
      *         false otherwise
      */
     boolean checkSubSequenceExtraction(CharSequence mainStr, int beginIndex, int endIndex) {
-        CharSequence expectedSubsequence = mainStr.subSequence(beginIndex, endIndex);
         CharSequence actualSubsequence = mainStr.subSequence(beginIndex, endIndex);
-        return expectedSubsequence.toString().equals(actualSubsequence.toString());
+        int length = endIndex - beginIndex;
+        // The expected subsequence is the range of mainStr itself, compared without copying either side
+        return actualSubsequence.length() == length && regionEquals(actualSubsequence, 0, mainStr, beginIndex, length);
     }
 
     /**
@@ -1747,7 +1883,8 @@ public class StringOracle {
     boolean checkSubSequenceConsistency(String mainStr, int beginIndex, int endIndex) {
         String subStrResult = mainStr.substring(beginIndex, endIndex);
         CharSequence subSeqResult = mainStr.subSequence(beginIndex, endIndex);
-        return subStrResult.equals(subSeqResult.toString());
+        return subStrResult.length() == subSeqResult.length()
+                && regionEquals(subStrResult, 0, subSeqResult, 0, subStrResult.length());
     }
 
     /**
@@ -2545,9 +2682,12 @@ public class StringOracle {
      * @param args     the arguments to format
      * @param expected the expected result
      * @return true if the formatted string matches the expected result, false
-     *         otherwise
+     *         otherwise, including when the format plan rejects the arguments
      */
     boolean checkFormatStringProcessing(String format, Object[] args, String expected) {
+        if (FormatPlan.of(format).expectedError(args) != null) {
+            return false; // String.format would throw instead of producing a result
+        }
         String result = String.format(format, args);
         return result.equals(expected);
     }
@@ -2562,9 +2702,13 @@ public class StringOracle {
      *         it throws an exception or misuses them
      */
     boolean checkArgumentHandling(String format, Object[] args, int expectedCount) {
+        FormatPlan plan = FormatPlan.of(format); // Parsed once per format string
+        if (plan.requiredArguments != expectedCount || plan.expectedError(args) != null) {
+            return false; // Wrong number of arguments used, or missing or mistyped ones
+        }
         try {
             String formatted = String.format(format, args);
-            return formatted != null; // Simplistic check; needs more robust implementation based on specifics
+            return formatted != null;
         } catch (IllegalFormatException e) {
             return false; // Incorrect handling or format specification
         }
@@ -2576,14 +2720,16 @@ public class StringOracle {
      * 
      * @param format the invalid format string
      * @param args   the arguments that do not match the format
-     * @return true if IllegalFormatException is thrown, false otherwise
+     * @return true if IllegalFormatException is thrown, and it is the one the
+     *         format plan predicts, false otherwise
      */
     boolean checkErrorHandling(String format, Object[] args) {
+        Class<? extends IllegalFormatException> predicted = FormatPlan.of(format).expectedError(args);
         try {
             String.format(format, args);
             return false; // No exception thrown, test fails
         } catch (IllegalFormatException e) {
-            return true; // Correct behavior
+            return predicted == null || predicted.isInstance(e);
         }
     }
 
@@ -2612,9 +2758,13 @@ public class StringOracle {
      * @param format   the format string
      * @param args     the arguments referenced by the format string
      * @param expected the expected formatted output
-     * @return true if the output matches the expected result, false otherwise
+     * @return true if the output matches the expected result, false otherwise,
+     *         including when the format plan rejects the arguments
      */
     boolean checkFormatStringInterpretation(Locale locale, String format, Object[] args, String expected) {
+        if (FormatPlan.of(format).expectedError(args) != null) {
+            return false; // String.format would throw instead of producing a result
+        }
         String formatted = String.format(locale, format, args);
         return formatted.equals(expected);
     }
@@ -2644,14 +2794,16 @@ public class StringOracle {
      * @param locale the locale for formatting
      * @param format an intentionally malformed format string
      * @param args   the arguments that do not match the required format
-     * @return true if IllegalFormatException is thrown, false otherwise
+     * @return true if IllegalFormatException is thrown, and it is the one the
+     *         format plan predicts, false otherwise
      */
     boolean checkErrorHandling(Locale locale, String format, Object[] args) {
+        Class<? extends IllegalFormatException> predicted = FormatPlan.of(format).expectedError(args);
         try {
             String.format(locale, format, args);
             return false; // Failure: no exception thrown when expected
         } catch (IllegalFormatException e) {
-            return true; // Correct behavior
+            return predicted == null || predicted.isInstance(e); // The plan may not foresee every error
         }
     }
 
@@ -0,0 +1,168 @@
+public class StringScan {
+    /**
+     * Char-array scanning primitives behind the StringOracle reference
+     * computations. Ranges are {@code [from, to)}.
+     */
+    interface Backend {
+        int indexOf(char[] a, int from, int to, char c);
+
+        int lastIndexOf(char[] a, int from, int to, char c);
+
+        /**
+         * Counts the positions i in {@code [from, to - 1)} where a[i] is a high and
+         * a[i + 1] a low surrogate. Such pairs cannot overlap.
+         */
+        int surrogatePairs(char[] a, int from, int to);
+    }
+
+    static class ScalarBackend implements Backend {
+        @Override
+        public int indexOf(char[] a, int from, int to, char c) {
+            for (int i = from; i < to; i++) {
+                if (a[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int lastIndexOf(char[] a, int from, int to, char c) {
+            for (int i = to - 1; i >= from; i--) {
+                if (a[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int surrogatePairs(char[] a, int from, int to) {
+            int pairs = 0;
+            for (int i = from; i < to - 1; i++) {
+                if (Character.isHighSurrogate(a[i]) && Character.isLowSurrogate(a[i + 1])) {
+                    pairs++;
+                }
+            }
+            return pairs;
+        }
+    }
+
+    /**
+     * Chosen once at startup: the jdk.incubator.vector backend when the JVM runs
+     * with {@code --add-modules jdk.incubator.vector} (and
+     * {@code -Doracle.vector=false} is not set), the scalar one otherwise.
+     */
+    static final Backend BACKEND = selectBackend();
+
+    static Backend selectBackend() {
+        if (!"false".equals(System.getProperty("oracle.vector"))) {
+            try {
+                return (Backend) Class.forName("VectorStringScan").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Incubator module not resolved, use the scalar backend
+            }
+        }
+        return new ScalarBackend();
+    }
+
+    /**
+     * Copies the string into the pooled per-thread buffer; the copy is valid until
+     * the next call on this thread.
+     */
+    static char[] chars(String str) {
+        char[] a = OracleBuffers.chars(str.length());
+        str.getChars(0, str.length(), a, 0);
+        return a;
+    }
+
+    /**
+     * Reference for String.indexOf(int): the first k with charAt(k) == ch for BMP
+     * values, or codePointAt(k) == ch for supplementary code points.
+     */
+    static int indexOf(String str, int ch) {
+        char[] a = chars(str);
+        int n = str.length();
+        if (!Character.isValidCodePoint(ch)) {
+            return -1;
+        }
+        if (!Character.isSupplementaryCodePoint(ch)) {
+            return BACKEND.indexOf(a, 0, n, (char) ch);
+        }
+        if (n < 2) {
+            return -1; // No room for a surrogate pair
+        }
+        char high = Character.highSurrogate(ch), low = Character.lowSurrogate(ch);
+        for (int i = BACKEND.indexOf(a, 0, n - 1, high); i >= 0; i = BACKEND.indexOf(a, i + 1, n - 1, high)) {
+            if (a[i + 1] == low) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reference for String.lastIndexOf(int), see {@link #indexOf(String, int)}.
+     */
+    static int lastIndexOf(String str, int ch) {
+        char[] a = chars(str);
+        int n = str.length();
+        if (!Character.isValidCodePoint(ch)) {
+            return -1;
+        }
+        if (!Character.isSupplementaryCodePoint(ch)) {
+            return BACKEND.lastIndexOf(a, 0, n, (char) ch);
+        }
+        if (n < 2) {
+            return -1; // No room for a surrogate pair
+        }
+        char high = Character.highSurrogate(ch), low = Character.lowSurrogate(ch);
+        for (int i = BACKEND.lastIndexOf(a, 0, n - 1, high); i >= 0; i = BACKEND.lastIndexOf(a, 0, i, high)) {
+            if (a[i + 1] == low) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reference for String.codePointCount: every char counts once, except that a
+     * valid surrogate pair counts once in total.
+     */
+    static int codePointCount(String str, int beginIndex, int endIndex) {
+        char[] a = chars(str);
+        return endIndex - beginIndex - BACKEND.surrogatePairs(a, beginIndex, endIndex);
+    }
+
+    /**
+     * Reference for equalsIgnoreCase: chars match if they are equal, or equal
+     * after toLowerCase or after toUpperCase. Runs of identical chars, the common
+     * case, are skipped in bulk with Arrays.mismatch; only differing chars go
+     * through the Character case mappings.
+     */
+    static boolean equalsIgnoreCase(String s1, String s2) {
+        int n = s1.length();
+        if (n != s2.length()) {
+            return false;
+        }
+        char[] a = OracleBuffers.chars(2 * n); // Both strings side by side in one pooled buffer
+        s1.getChars(0, n, a, 0);
+        s2.getChars(0, n, a, n);
+        int i = 0;
+        while (i < n) {
+            int diff = Arrays.mismatch(a, i, n, a, n + i, 2 * n);
+            if (diff < 0) {
+                return true;
+            }
+            i += diff;
+            char c1 = a[i], c2 = a[n + i];
+            if (Character.toLowerCase(c1) != Character.toLowerCase(c2)
+                    && Character.toUpperCase(c1) != Character.toUpperCase(c2)) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+}
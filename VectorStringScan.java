@@ -0,0 +1,63 @@
+public class VectorStringScan implements StringScan.Backend {
+    /*
+     * jdk.incubator.vector backend for StringScan. Only loaded reflectively by
+     * StringScan.selectBackend, so the oracles still run when the incubator
+     * module is not present.
+     */
+    static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    @Override
+    public int indexOf(char[] a, int from, int to, char c) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            VectorMask<Short> hit = ShortVector.fromCharArray(SPECIES, a, i).eq((short) c);
+            if (hit.anyTrue()) {
+                return i + hit.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            if (a[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(char[] a, int from, int to, char c) {
+        int i = to - SPECIES.length();
+        for (; i >= from; i -= SPECIES.length()) {
+            VectorMask<Short> hit = ShortVector.fromCharArray(SPECIES, a, i).eq((short) c);
+            if (hit.anyTrue()) {
+                return i + hit.lastTrue();
+            }
+        }
+        for (int j = i + SPECIES.length() - 1; j >= from; j--) {
+            if (a[j] == c) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int surrogatePairs(char[] a, int from, int to) {
+        int pairs = 0;
+        int i = from;
+        // Each step compares lanes [i, i + len) with [i + 1, i + 1 + len)
+        for (int bound = from + SPECIES.loopBound(Math.max(to - from - 1, 0)); i < bound; i += SPECIES.length()) {
+            ShortVector current = ShortVector.fromCharArray(SPECIES, a, i);
+            ShortVector next = ShortVector.fromCharArray(SPECIES, a, i + 1);
+            VectorMask<Short> high = current.and((short) 0xFC00).eq((short) 0xD800);
+            VectorMask<Short> low = next.and((short) 0xFC00).eq((short) 0xDC00);
+            pairs += high.and(low).trueCount();
+        }
+        for (; i < to - 1; i++) {
+            if (Character.isHighSurrogate(a[i]) && Character.isLowSurrogate(a[i + 1])) {
+                pairs++;
+            }
+        }
+        return pairs;
+    }
+
+}
@@ -0,0 +1,269 @@
+public class VirtualCollections {
+    /**
+     * Largest array the JVM will reliably allocate, as used by the JDK
+     * collections.
+     */
+    static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * A list of {@code count} elements, possibly more than Integer.MAX_VALUE,
+     * where element {@code i} is {@code contents.apply(i)}. Nothing is stored
+     * except the elements replaced through {@link #set}, which are kept in a
+     * sparse overlay, so memory stays constant for read-only use.
+     */
+    static class IndexedList<E> extends AbstractList<E> implements RandomAccess {
+        final long count;
+        final LongFunction<? extends E> contents;
+        final ToLongFunction<Object> indexOf; // may be null, then contains() scans
+        final Map<Long, E> overlay = new HashMap<>();
+
+        IndexedList(long count, LongFunction<? extends E> contents, ToLongFunction<Object> indexOf) {
+            if (count < 0) {
+                throw new IllegalArgumentException("count < 0: " + count);
+            }
+            this.count = count;
+            this.contents = contents;
+            this.indexOf = indexOf;
+        }
+
+        long longSize() {
+            return count;
+        }
+
+        E getLong(long index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            E replaced = overlay.get(index);
+            return replaced != null || overlay.containsKey(index) ? replaced : contents.apply(index);
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(count, Integer.MAX_VALUE); // Capped as the Collection contract requires
+        }
+
+        @Override
+        public E get(int index) {
+            return getLong(index);
+        }
+
+        @Override
+        public E set(int index, E element) {
+            E previous = getLong(index);
+            overlay.put((long) index, element);
+            return previous;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (indexOf == null || !overlay.isEmpty()) {
+                return super.contains(o);
+            }
+            long index = indexOf.applyAsLong(o);
+            return index >= 0 && index < count;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return Spliterators.iterator(spliterator());
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return new IndexSpliterator<>(0, count, this::getLong,
+                    Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        @Override
+        public Object[] toArray() {
+            return toArray(new Object[0]);
+        }
+
+        @Override
+        public <T> T[] toArray(T[] a) {
+            if (count > MAX_ARRAY_SIZE) {
+                throw new OutOfMemoryError("Required array size too large: " + count);
+            }
+            return super.toArray(a);
+        }
+    }
+
+    /**
+     * A read-only set of {@code count} distinct elements where element {@code i}
+     * is {@code contents.apply(i)}; {@code indexOf} must invert
+     * {@code contents}, returning -1 for objects that are not elements.
+     */
+    static class IndexedSet<E> extends AbstractSet<E> {
+        final long count;
+        final LongFunction<? extends E> contents;
+        final ToLongFunction<Object> indexOf;
+
+        IndexedSet(long count, LongFunction<? extends E> contents, ToLongFunction<Object> indexOf) {
+            if (count < 0) {
+                throw new IllegalArgumentException("count < 0: " + count);
+            }
+            this.count = count;
+            this.contents = contents;
+            this.indexOf = indexOf;
+        }
+
+        long longSize() {
+            return count;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(count, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            long index = indexOf.applyAsLong(o);
+            return index >= 0 && index < count;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return Spliterators.iterator(spliterator());
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return new IndexSpliterator<E>(0, count, contents::apply,
+                    Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE);
+        }
+
+        @Override
+        public Object[] toArray() {
+            return toArray(new Object[0]);
+        }
+
+        @Override
+        public <T> T[] toArray(T[] a) {
+            if (count > MAX_ARRAY_SIZE) {
+                throw new OutOfMemoryError("Required array size too large: " + count);
+            }
+            return super.toArray(a);
+        }
+    }
+
+    /**
+     * A read-only map from the keys {@code 0L .. count - 1} to
+     * {@code values.apply(key)}.
+     */
+    static class IndexedMap<V> extends AbstractMap<Long, V> {
+        final long count;
+        final LongFunction<? extends V> values;
+
+        IndexedMap(long count, LongFunction<? extends V> values) {
+            if (count < 0) {
+                throw new IllegalArgumentException("count < 0: " + count);
+            }
+            this.count = count;
+            this.values = values;
+        }
+
+        long longSize() {
+            return count;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(count, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Long && (Long) key >= 0 && (Long) key < count;
+        }
+
+        @Override
+        public V get(Object key) {
+            return containsKey(key) ? values.apply((Long) key) : null;
+        }
+
+        @Override
+        public Set<Map.Entry<Long, V>> entrySet() {
+            return new IndexedSet<Map.Entry<Long, V>>(count,
+                    i -> new AbstractMap.SimpleImmutableEntry<Long, V>(i, values.apply(i)), o -> {
+                        if (!(o instanceof Map.Entry) || !containsKey(((Map.Entry<?, ?>) o).getKey())) {
+                            return -1;
+                        }
+                        Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                        long key = (Long) e.getKey();
+                        return Objects.equals(values.apply(key), e.getValue()) ? key : -1;
+                    });
+        }
+    }
+
+    /**
+     * Spliterator over the index range {@code [from, to)} that splits in halves,
+     * so parallel traversals of huge ranges stay balanced.
+     */
+    static class IndexSpliterator<E> implements Spliterator<E> {
+        long from;
+        final long to;
+        final LongFunction<? extends E> element;
+        final int characteristics;
+
+        IndexSpliterator(long from, long to, LongFunction<? extends E> element, int characteristics) {
+            this.from = from;
+            this.to = to;
+            this.element = element;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(element.apply(from++));
+            return true;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            long mid = (from + to) >>> 1;
+            if (mid <= from) {
+                return null;
+            }
+            Spliterator<E> prefix = new IndexSpliterator<>(from, mid, element, characteristics);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * The list {@code 0L, 1L, ..., count - 1}.
+     */
+    static IndexedList<Long> longs(long count) {
+        return new IndexedList<>(count, i -> i, o -> o instanceof Long ? (Long) o : -1);
+    }
+
+    /**
+     * The set {@code {0L, 1L, ..., count - 1}}.
+     */
+    static IndexedSet<Long> longSet(long count) {
+        return new IndexedSet<>(count, i -> i, o -> o instanceof Long ? (Long) o : -1);
+    }
+
+    /**
+     * The map {@code {0L=0L, 1L=1L, ..., count - 1=count - 1}}.
+     */
+    static IndexedMap<Long> identityMap(long count) {
+        return new IndexedMap<>(count, i -> i);
+    }
+
+}